@@ -0,0 +1,39 @@
+package com.sudoku;
+
+/**
+ * Fixed puzzles shared by the benchmarks so every run measures the same work.
+ * Every puzzle except UNDER_CONSTRAINED has exactly one solution.
+ */
+public final class BenchmarkCorpus {
+    public enum Tier {
+        /** 32 clues, solvable by singles alone. */
+        EASY("003020600900305001001806400008102900700000008006708200002609500800203009005010300"),
+        /** 21 clues, needs a fair amount of search. */
+        MEDIUM("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4.."),
+        /** 17 clues, the minimum for a unique puzzle. */
+        HARD("4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......"),
+        /** Built to defeat row-major brute force: the first row is empty and its solution is 987654321. */
+        PATHOLOGICAL("..............3.85..1.2.......5.7.....4...1...9.......5......73..2.1........4...9");
+
+        private final String puzzle;
+
+        Tier(String puzzle) {
+            this.puzzle = puzzle;
+        }
+
+        public SudokuBoard board() {
+            return parse(puzzle);
+        }
+    }
+
+    /** 17 clues with a very large number of solutions, for enumeration and counting. */
+    public static final String UNDER_CONSTRAINED =
+            ".....6....59.....82....8....45........3........6..3.54...325..6..................";
+
+    private BenchmarkCorpus() {
+    }
+
+    public static SudokuBoard parse(String puzzle) {
+        return PuzzleReader.parse(puzzle, SudokuBoard.SUBGRID_SIZE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board representation costs: the legality checks the solvers make at every
+ * node and the copies made on every fork. No search runs here, so there is
+ * no artificial load to toggle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BoardBenchmark {
+    private SudokuBoard board;
+    private SudokuBoard target;
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = BenchmarkCorpus.Tier.MEDIUM.board();
+        target = new SudokuBoard();
+        snapshot = new byte[SudokuBoard.CELLS];
+        board.snapshot(snapshot);
+    }
+
+    /** isSafe for every digit of every cell, as the old solver loops did. */
+    @Benchmark
+    public int isSafeSweep() {
+        int safe = 0;
+        for (int row = 0; row < SudokuBoard.SIZE; row++) {
+            for (int col = 0; col < SudokuBoard.SIZE; col++) {
+                for (int num = 1; num <= SudokuBoard.SIZE; num++) {
+                    if (board.isSafe(row, col, num)) safe++;
+                }
+            }
+        }
+        return safe;
+    }
+
+    /** The same information as isSafeSweep through one candidates() mask per cell. */
+    @Benchmark
+    public int candidatesSweep() {
+        int safe = 0;
+        for (int row = 0; row < SudokuBoard.SIZE; row++) {
+            for (int col = 0; col < SudokuBoard.SIZE; col++) {
+                safe += Integer.bitCount(board.candidates(row, col));
+            }
+        }
+        return safe;
+    }
+
+    @Benchmark
+    public SudokuBoard copy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public SudokuBoard copyInto() {
+        board.copyInto(target);
+        return target;
+    }
+
+    @Benchmark
+    public SudokuBoard restore() {
+        target.restore(snapshot);
+        return target;
+    }
+}
@@ -0,0 +1,70 @@
+package com.sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Enumerating and counting many solutions of an under-constrained board,
+ * plus uniqueness probes on a unique puzzle. Dancing Links has no load
+ * hook, so dancingLinksCount measures the same with and without it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EnumerationBenchmark extends LoadToggle {
+    @Param({"10", "1000"})
+    public int limit;
+
+    private SudokuBoard underConstrained;
+    private SudokuBoard unique;
+    private SolverOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        underConstrained = BenchmarkCorpus.parse(BenchmarkCorpus.UNDER_CONSTRAINED);
+        unique = BenchmarkCorpus.Tier.HARD.board();
+        options = options();
+    }
+
+    @Benchmark
+    public List<SudokuBoard> multiSolutionFindAll() {
+        return new MultiSolutionSolver(underConstrained, options).findAll(limit);
+    }
+
+    @Benchmark
+    public long dancingLinksCount() {
+        return new DancingLinksSolver(underConstrained).countSolutions(limit);
+    }
+
+    @Benchmark
+    public long multiSolutionCount() {
+        return new MultiSolutionSolver(underConstrained, options).countSolutions(limit);
+    }
+
+    @Benchmark
+    public long parallelCount() {
+        return ParallelSudokuSolver.countSolutions(underConstrained, options, limit);
+    }
+
+    @Benchmark
+    public List<SudokuBoard> multiSolutionProbeUnique() {
+        return new MultiSolutionSolver(unique, options).findAll(10);
+    }
+
+    @Benchmark
+    public boolean parallelIsUnique() {
+        return ParallelSudokuSolver.countSolutions(unique, options, 2) == 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.sudoku;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fork/Join solve time against pool parallelism. Each trial gets its own pool
+ * so results are not skewed by other work on the default pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ForkJoinScalingBenchmark extends LoadToggle {
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int parallelism;
+
+    @Param({"HARD", "PATHOLOGICAL"})
+    public BenchmarkCorpus.Tier tier;
+
+    private ForkJoinPool pool;
+    private SudokuBoard puzzle;
+    private SolverOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = PoolConfig.DEFAULT.withParallelism(parallelism).newPool();
+        puzzle = tier.board();
+        options = options();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SudokuBoard solve() {
+        return ParallelSudokuSolver.solve(pool, puzzle, null, options,
+                new PropagationStats(), new CancellationToken());
+    }
+}
@@ -0,0 +1,38 @@
+package com.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Puzzle generation per difficulty. The generator solves with the default
+ * options, so unlike the solver benchmarks there is no artificial load to toggle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GeneratorBenchmark {
+    @Param({"1", "2", "3"})
+    public int difficulty;
+
+    @Benchmark
+    public SudokuBoard generate() {
+        return SudokuGenerator.generate(difficulty);
+    }
+
+    @Benchmark
+    public SudokuBoard generateUnique() {
+        return SudokuGenerator.generateUnique(SudokuGenerator.cluesFor(difficulty));
+    }
+}
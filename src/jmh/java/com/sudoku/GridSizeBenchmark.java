@@ -0,0 +1,49 @@
+package com.sudoku;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to first solution on 9x9, 16x16 and 25x25 grids, with the same share
+ * of cells removed on every size. Puzzles come from a fixed seed, so every
+ * fork solves the same boards. DLX is left out: without propagation its
+ * search on sparse 25x25 puzzles runs for tens of seconds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridSizeBenchmark extends LoadToggle {
+    private static final long SEED = 21;
+
+    @Param({"sequential", "forkjoin", "multi"})
+    public String engine;
+
+    @Param({"3", "4", "5"})
+    public int boxSize;
+
+    private Solver solver;
+    private SudokuBoard puzzle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = SolverRegistry.create(engine, options(), null);
+        puzzle = SudokuGenerator.generate(boxSize, 2, new SplittableRandom(SEED));
+    }
+
+    @Benchmark
+    public SudokuBoard solve() {
+        return solver.solve(puzzle);
+    }
+}
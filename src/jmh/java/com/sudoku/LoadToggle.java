@@ -0,0 +1,19 @@
+package com.sudoku;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Base state for the solver benchmarks: runs each measurement with the
+ * GUI demo's ComplexitySimulator load and without any load.
+ */
+@State(Scope.Benchmark)
+public abstract class LoadToggle {
+    @Param({"true", "false"})
+    public boolean artificialLoad;
+
+    protected SolverOptions options() {
+        return SolverOptions.DEFAULT.withLoad(artificialLoad ? ComplexitySimulator.DEMO : ComplexitySimulator.NONE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to first solution for every registered engine on each corpus tier.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SolverBenchmark extends LoadToggle {
+    @Param({"sequential", "forkjoin", "multi", "dlx"})
+    public String engine;
+
+    @Param({"EASY", "MEDIUM", "HARD", "PATHOLOGICAL"})
+    public BenchmarkCorpus.Tier tier;
+
+    private Solver solver;
+    private SudokuBoard puzzle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = SolverRegistry.create(engine, options(), null);
+        puzzle = tier.board();
+    }
+
+    @Benchmark
+    public SudokuBoard solve() {
+        return solver.solve(puzzle);
+    }
+}
@@ -0,0 +1,205 @@
+package com.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Solves many puzzles concurrently, one puzzle per worker at a time, instead
+ * of parallelising inside a single search. Each worker thread keeps its own
+ * solver and reuses it for every puzzle it takes.
+ */
+public class BatchSolver implements AutoCloseable {
+    // Results an ordered batch may hold back per worker before workers wait for the slowest
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    /** Receives each result; solution is null when the puzzle has none. */
+    public interface ResultHandler {
+        void onResult(long index, SudokuBoard puzzle, SudokuBoard solution);
+    }
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final ThreadLocal<Function<SudokuBoard, SudokuBoard>> workerSolver;
+
+    /**
+     * Workers reuse a SequentialSudokuSolver, reloading its board for each puzzle;
+     * a puzzle of another size gets a new solver.
+     */
+    public BatchSolver(int threads, SolverOptions options) {
+        this(() -> {
+            SequentialSudokuSolver[] solver = {new SequentialSudokuSolver(new SudokuBoard(), null, 0, options)};
+            return puzzle -> {
+                if (solver[0].getSolvedBoard().sameShape(puzzle)) {
+                    solver[0].reset(puzzle);
+                } else {
+                    solver[0] = new SequentialSudokuSolver(puzzle.copy(), null, 0, options);
+                }
+                return solver[0].solve() ? solver[0].getSolvedBoard().copy() : null;
+            };
+        }, threads);
+    }
+
+    /** Each worker creates one engine from engineFactory and keeps it for the whole batch. */
+    public BatchSolver(int threads, Supplier<Solver> engineFactory) {
+        this(() -> engineFactory.get()::solve, threads);
+    }
+
+    private BatchSolver(Supplier<Function<SudokuBoard, SudokuBoard>> workerFactory, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive: " + threads);
+        this.threads = threads;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "sudoku-batch-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workerSolver = ThreadLocal.withInitial(workerFactory);
+    }
+
+    /** Solves every puzzle and returns the solutions in input order (null for unsolvable ones). */
+    public List<SudokuBoard> solveAll(List<SudokuBoard> puzzles) {
+        SudokuBoard[] solutions = new SudokuBoard[puzzles.size()];
+        solve(puzzles.iterator(), false, (index, puzzle, solution) -> solutions[(int) index] = solution);
+        return new ArrayList<>(Arrays.asList(solutions));
+    }
+
+    public BatchStats solve(Stream<SudokuBoard> puzzles, boolean ordered, ResultHandler handler) {
+        return solve(puzzles.iterator(), ordered, handler);
+    }
+
+    /**
+     * Pulls puzzles from the iterator as workers free up. With ordered set the
+     * handler sees results in input order; otherwise as soon as each completes.
+     * The handler is never called concurrently. Ordered batches keep at most
+     * IN_FLIGHT_PER_THREAD puzzles per worker between taking and emitting, so
+     * one slow puzzle can't make the held-back results grow without bound.
+     */
+    public BatchStats solve(Iterator<SudokuBoard> puzzles, boolean ordered, ResultHandler handler) {
+        long start = System.nanoTime();
+        AtomicLong solved = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        long[] taken = new long[1];
+        Emitter emitter = new Emitter(ordered, handler, threads * IN_FLIGHT_PER_THREAD);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                Function<SudokuBoard, SudokuBoard> solver = workerSolver.get();
+                while (!failed.get()) {
+                    if (!emitter.reserve()) return;
+                    long index;
+                    SudokuBoard puzzle;
+                    synchronized (puzzles) {
+                        if (failed.get() || !puzzles.hasNext()) {
+                            emitter.cancelReservation();
+                            return;
+                        }
+                        puzzle = puzzles.next();
+                        index = taken[0]++;
+                    }
+                    try {
+                        SudokuBoard solution = solver.apply(puzzle);
+                        if (solution != null) solved.incrementAndGet();
+                        emitter.emit(index, puzzle, solution);
+                    } catch (RuntimeException | Error e) {
+                        failed.set(true);
+                        // This result will never be emitted; wake workers waiting for room behind it
+                        emitter.abort(threads);
+                        throw e;
+                    }
+                }
+            }));
+        }
+        awaitAll(workers);
+        synchronized (puzzles) {
+            return new BatchStats(taken[0], solved.get(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static void awaitAll(List<Future<?>> workers) {
+        RuntimeException failure = null;
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch", e);
+            } catch (ExecutionException e) {
+                if (failure == null) failure = new IllegalStateException("Batch solve failed", e.getCause());
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Serialises handler calls and, in ordered mode, holds results back until
+     * their turn. A worker reserves a slot before taking a puzzle and the slot
+     * is freed once its result has been handed on.
+     */
+    private static class Emitter {
+        private final boolean ordered;
+        private final ResultHandler handler;
+        private final Semaphore window;
+        private final Map<Long, SudokuBoard[]> pending = new HashMap<>();
+        private long nextIndex;
+
+        Emitter(boolean ordered, ResultHandler handler, int inFlight) {
+            this.ordered = ordered;
+            this.handler = handler;
+            this.window = ordered ? new Semaphore(inFlight) : null;
+        }
+
+        /** Waits for room for one more result; false if the worker was interrupted. */
+        boolean reserve() {
+            if (!ordered) return true;
+            try {
+                window.acquire();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void cancelReservation() {
+            if (ordered) window.release();
+        }
+
+        /** Lets waiting workers through after a failure so they can see it and stop. */
+        void abort(int workers) {
+            if (ordered) window.release(workers);
+        }
+
+        synchronized void emit(long index, SudokuBoard puzzle, SudokuBoard solution) {
+            if (!ordered) {
+                handler.onResult(index, puzzle, solution);
+                return;
+            }
+            pending.put(index, new SudokuBoard[]{puzzle, solution});
+            for (SudokuBoard[] ready; (ready = pending.remove(nextIndex)) != null; nextIndex++) {
+                handler.onResult(nextIndex, ready[0], ready[1]);
+                window.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sudoku;
+
+/**
+ * Aggregate outcome of one BatchSolver run.
+ */
+public class BatchStats {
+    private final long puzzles;
+    private final long solved;
+    private final long elapsedNanos;
+
+    public BatchStats(long puzzles, long solved, long elapsedNanos) {
+        this.puzzles = puzzles;
+        this.solved = solved;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long puzzles() {
+        return puzzles;
+    }
+
+    public long solved() {
+        return solved;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double puzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzles * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d puzzles (%d solved) in %.1f ms, %.1f puzzles/s",
+                puzzles, solved, elapsedNanos / 1_000_000.0, puzzlesPerSecond());
+    }
+}
@@ -0,0 +1,59 @@
+package com.sudoku;
+
+/**
+ * Index tables for one grid shape, shared by every board of that box size:
+ * a box size of n gives an n² x n² grid with digits 1..n². Built once per
+ * size and cached, so boards and propagators look up boxes and units instead
+ * of dividing in their inner loops.
+ */
+final class BoardGeometry {
+    private static final BoardGeometry[] CACHE = new BoardGeometry[SudokuBoard.MAX_BOX_SIZE + 1];
+
+    final int boxSize;
+    final int size;
+    final int cells;
+    final int allDigits;
+
+    // Box index of every cell
+    final int[] boxOf;
+
+    // Units laid out as [rows | columns | boxes], each listing its cell indices
+    final int[][] units;
+
+    private BoardGeometry(int boxSize) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cells = size * size;
+        this.allDigits = (1 << size) - 1;
+        this.boxOf = new int[cells];
+        this.units = new int[3 * size][size];
+        for (int cell = 0; cell < cells; cell++) {
+            int r = cell / size, c = cell % size, b = (r / boxSize) * boxSize + c / boxSize;
+            boxOf[cell] = b;
+            units[r][c] = cell;
+            units[size + c][r] = cell;
+            units[2 * size + b][(r % boxSize) * boxSize + c % boxSize] = cell;
+        }
+    }
+
+    static BoardGeometry of(int boxSize) {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE
+                    + " and " + SudokuBoard.MAX_BOX_SIZE + " but was " + boxSize);
+        }
+        synchronized (CACHE) {
+            BoardGeometry geometry = CACHE[boxSize];
+            if (geometry == null) CACHE[boxSize] = geometry = new BoardGeometry(boxSize);
+            return geometry;
+        }
+    }
+
+    /** The box size whose grids have the given side length. */
+    static int boxSizeFor(int size) {
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        if (boxSize * boxSize != size) {
+            throw new IllegalArgumentException("Grid side " + size + " is not a perfect square");
+        }
+        return boxSize;
+    }
+}
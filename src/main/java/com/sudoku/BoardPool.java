@@ -0,0 +1,27 @@
+package com.sudoku;
+
+import java.util.ArrayDeque;
+
+/**
+ * Per-thread pool of preallocated boards so the solvers can fork and
+ * backtrack without allocating a fresh SudokuBoard every time.
+ * A board must be released by the same thread that acquired it.
+ */
+public class BoardPool {
+    private static final int MAX_POOLED = 64;
+    private static final ThreadLocal<ArrayDeque<SudokuBoard>> POOL =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static SudokuBoard acquire(SudokuBoard source) {
+        SudokuBoard board = POOL.get().pollFirst();
+        // A board of another size is dropped; a pool rarely mixes sizes
+        if (board == null || !board.sameShape(source)) return source.copy();
+        source.copyInto(board);
+        return board;
+    }
+
+    public static void release(SudokuBoard board) {
+        ArrayDeque<SudokuBoard> pool = POOL.get();
+        if (pool.size() < MAX_POOLED) pool.addFirst(board);
+    }
+}
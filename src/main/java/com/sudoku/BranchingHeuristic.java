@@ -0,0 +1,74 @@
+package com.sudoku;
+
+/**
+ * Chooses the next empty cell to branch on. Every strategy returns the cell
+ * index (row * size + col) as a primitive, or -1 when the board is full.
+ * Cells are ranked by the propagator's candidates, the same masks the search
+ * then branches over, so eliminations count towards the ranking too.
+ */
+public enum BranchingHeuristic {
+    /** First empty cell in row-major order. */
+    ROW_MAJOR {
+        @Override
+        public int select(ConstraintPropagator propagator) {
+            SudokuBoard board = propagator.getBoard();
+            int cells = board.cellCount();
+            for (int cell = 0; cell < cells; cell++) {
+                if (board.get(cell) == 0) return cell;
+            }
+            return -1;
+        }
+    },
+
+    /** Minimum remaining values: the empty cell with the fewest legal digits. */
+    MRV {
+        @Override
+        public int select(ConstraintPropagator propagator) {
+            SudokuBoard board = propagator.getBoard();
+            int cells = board.cellCount();
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            for (int cell = 0; cell < cells; cell++) {
+                if (board.get(cell) != 0) continue;
+                int count = Integer.bitCount(propagator.candidates(cell));
+                if (count < bestCount) {
+                    best = cell;
+                    bestCount = count;
+                    // A dead end or a forced move can't be beaten
+                    if (count <= 1) break;
+                }
+            }
+            return best;
+        }
+    },
+
+    /** MRV, breaking ties by the cell that constrains the most empty peers. */
+    MRV_DEGREE {
+        @Override
+        public int select(ConstraintPropagator propagator) {
+            SudokuBoard board = propagator.getBoard();
+            int size = board.size();
+            int cells = board.cellCount();
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            int bestDegree = -1;
+            for (int cell = 0; cell < cells; cell++) {
+                if (board.get(cell) != 0) continue;
+                int row = cell / size;
+                int col = cell % size;
+                int count = Integer.bitCount(propagator.candidates(cell));
+                if (count > bestCount) continue;
+                if (count <= 1) return cell;
+                int degree = board.openDegree(row, col);
+                if (count < bestCount || degree > bestDegree) {
+                    best = cell;
+                    bestCount = count;
+                    bestDegree = degree;
+                }
+            }
+            return best;
+        }
+    };
+
+    public abstract int select(ConstraintPropagator propagator);
+}
@@ -0,0 +1,60 @@
+package com.sudoku;
+
+import java.util.function.Consumer;
+
+/**
+ * Puts a SolutionCache or SolutionStore in front of another engine. solve() is
+ * answered from it when the puzzle (for the cache, also a symmetric variant)
+ * was solved before; on a puzzle with several solutions that may be a
+ * different, equally valid one than the engine would return. Everything else
+ * goes straight to the engine.
+ */
+public class CachingSolver implements Solver {
+    private final Solver delegate;
+    private final SolutionLookup cache;
+
+    /** cache may be shared by several CachingSolvers, e.g. one per worker thread. */
+    public CachingSolver(Solver delegate, SolutionLookup cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    public SolutionLookup cache() {
+        return cache;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        return cache.solve(board, delegate::solve);
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        return delegate.solveNth(board, index);
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return delegate.countSolutions(board, limit);
+    }
+
+    @Override
+    public boolean isUnique(SudokuBoard board) {
+        return delegate.isUnique(board);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        return delegate.enumerate(board, limit, consumer);
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+}
@@ -0,0 +1,36 @@
+package com.sudoku;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared stop flag for one solve. Every task polls isCancelled() in its inner
+ * loop; the flag is raised by an explicit cancel() or by the first task that
+ * publishes a solution.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+    private final AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Records board as the solution if none was published yet and stops the
+     * remaining tasks. Returns the winning solution either way.
+     */
+    public SudokuBoard publish(SudokuBoard board) {
+        solution.compareAndSet(null, board);
+        cancelled = true;
+        return solution.get();
+    }
+
+    /** The published solution, or null if none has been found. */
+    public SudokuBoard solution() {
+        return solution.get();
+    }
+}
@@ -0,0 +1,349 @@
+package com.sudoku;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A puzzle's representative under the validity-preserving symmetries:
+ * transposition, band and stack swaps, row swaps within a band, column swaps
+ * within a stack and relabelled digits. Puzzles that are transforms of each
+ * other get the same key(), and the transform is kept so a solution of the
+ * canonical puzzle can be mapped back onto the original with fromCanonical().
+ * <p>
+ * The key is the lexicographically smallest grid, blanks counting as 0, with
+ * digits relabelled in order of first appearance. It is found by a pruned
+ * search: the first row and the column order are chosen stack by stack, then
+ * the other rows one at a time, and a branch is dropped as soon as its prefix
+ * is larger than the best grid so far. Up to 9x9 both orientations and all
+ * 1296 column orders are covered. Larger grids keep their column order and
+ * orientation, so only row moves and relabelled digits are recognised there.
+ * A search that runs out of its node budget, as on near-empty grids, falls
+ * back to the puzzle itself under a separate key, so it only misses matches.
+ */
+public final class CanonicalForm {
+    // Column orders are searched only up to this box size: (n!)^(n+1) grows too fast
+    private static final int MAX_COLUMN_SEARCH_BOX = 3;
+    // Rows and stacks tried before giving up; near-empty grids tie almost everywhere
+    private static final int NODE_BUDGET = 200_000;
+
+    private final String key;
+    private final int size;
+    private final boolean transposed;
+    // Canonical row i comes from row rowOrder[i] of the (transposed) source, and likewise for columns
+    private final int[] rowOrder;
+    private final int[] colOrder;
+    // Canonical digit of every source digit, and back
+    private final int[] toCanonical;
+    private final int[] fromCanonical;
+
+    private CanonicalForm(String key, int size, boolean transposed, int[] rowOrder, int[] colOrder,
+                          int[] toCanonical) {
+        this.key = key;
+        this.size = size;
+        this.transposed = transposed;
+        this.rowOrder = rowOrder;
+        this.colOrder = colOrder;
+        this.toCanonical = toCanonical;
+        this.fromCanonical = new int[toCanonical.length];
+        for (int digit = 0; digit < toCanonical.length; digit++) fromCanonical[toCanonical[digit]] = digit;
+    }
+
+    public static CanonicalForm of(SudokuBoard board) {
+        return new Search(board).run();
+    }
+
+    /** Equal for puzzles that are symmetric variants of each other, and only for those. */
+    public String key() {
+        return key;
+    }
+
+    /** The board in canonical form, e.g. a solution of the original puzzle. */
+    public SudokuBoard toCanonical(SudokuBoard board) {
+        SudokuBoard result = new SudokuBoard(board.boxSize());
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                result.set(i, j, toCanonical[sourceValue(board, i, j)]);
+            }
+        }
+        return result;
+    }
+
+    /** Maps a board in canonical form, e.g. a cached solution, back onto the original puzzle. */
+    public SudokuBoard fromCanonical(SudokuBoard canonical) {
+        SudokuBoard result = new SudokuBoard(canonical.boxSize());
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = fromCanonical[canonical.get(i, j)];
+                if (transposed) {
+                    result.set(colOrder[j], rowOrder[i], value);
+                } else {
+                    result.set(rowOrder[i], colOrder[j], value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int sourceValue(SudokuBoard board, int i, int j) {
+        return transposed ? board.get(colOrder[j], rowOrder[i]) : board.get(rowOrder[i], colOrder[j]);
+    }
+
+    /** One canonicalization; holds the best grid found so far and the scratch state of the search. */
+    private static final class Search {
+        // The source cells in both orientations, row-major
+        private final byte[][] orientations;
+        private final int box;
+        private final int size;
+        private final int[][] boxOrders;
+        private int budget = NODE_BUDGET;
+
+        // Current candidate: orientation, column order, rows picked and digit labels given so far
+        private boolean transposed;
+        private byte[] source;
+        private final int[] colOrder;
+        private final boolean[] stackUsed;
+        private final int[] rowOrder;
+        private final boolean[] rowUsed;
+        // labels[depth] and nextLabel[depth] are the digit map after depth rows, so a
+        // branch is undone by index; stackLabels does the same within the first row
+        private final int[][] labels;
+        private final int[] nextLabel;
+        private final int[][] stackLabels;
+        private final int[] stackNext;
+        // Canonical values of the rows picked so far, row-major
+        private final byte[] grid;
+        // less[depth]: the first depth rows already beat the best grid; stackLess likewise
+        private final boolean[] less;
+        private final boolean[] stackLess;
+
+        // Best grid so far and how it was reached
+        private final byte[] best;
+        private boolean found;
+        private boolean bestTransposed;
+        private int[] bestRowOrder;
+        private int[] bestColOrder;
+        private int[] bestLabels;
+
+        Search(SudokuBoard board) {
+            this.box = board.boxSize();
+            this.size = board.size();
+            byte[] cells = new byte[board.cellCount()];
+            board.snapshot(cells);
+            if (box <= MAX_COLUMN_SEARCH_BOX) {
+                byte[] flipped = new byte[cells.length];
+                for (int cell = 0; cell < cells.length; cell++) {
+                    flipped[(cell % size) * size + cell / size] = cells[cell];
+                }
+                this.orientations = new byte[][]{cells, flipped};
+            } else {
+                this.orientations = new byte[][]{cells};
+            }
+            this.boxOrders = permutations(box);
+            this.colOrder = new int[size];
+            this.stackUsed = new boolean[box];
+            this.rowOrder = new int[size];
+            this.rowUsed = new boolean[size];
+            this.labels = new int[size + 1][size + 1];
+            this.nextLabel = new int[size + 1];
+            this.stackLabels = new int[box + 1][size + 1];
+            this.stackNext = new int[box + 1];
+            nextLabel[0] = 1;
+            stackNext[0] = 1;
+            this.grid = new byte[board.cellCount()];
+            this.less = new boolean[size + 1];
+            this.stackLess = new boolean[box + 1];
+            this.best = new byte[board.cellCount()];
+        }
+
+        CanonicalForm run() {
+            if (box > MAX_COLUMN_SEARCH_BOX) {
+                source = orientations[0];
+                for (int col = 0; col < size; col++) colOrder[col] = col;
+                pickRow(0);
+            } else {
+                // Emptier rows give smaller first rows, so trying them first prunes sooner
+                for (int line : linesByClues()) {
+                    if (budget < 0) break;
+                    transposed = line >= size;
+                    source = orientations[transposed ? 1 : 0];
+                    int row = line % size;
+                    rowUsed[row] = true;
+                    rowOrder[0] = row;
+                    pickStack(0);
+                    rowUsed[row] = false;
+                }
+            }
+            if (budget < 0) return identity();
+            // Digits missing from the puzzle get the remaining labels in their own order
+            int[] toCanonical = bestLabels.clone();
+            int next = 1;
+            for (int digit = 1; digit <= size; digit++) {
+                if (toCanonical[digit] != 0) next = Math.max(next, toCanonical[digit] + 1);
+            }
+            for (int digit = 1; digit <= size; digit++) {
+                if (toCanonical[digit] == 0) toCanonical[digit] = next++;
+            }
+            String key = box + ":" + new String(best, StandardCharsets.ISO_8859_1);
+            return new CanonicalForm(key, size, bestTransposed, bestRowOrder, bestColOrder, toCanonical);
+        }
+
+        /**
+         * Picks the stack shown at position stack of the first row, and the order of
+         * its columns; once all stacks are placed the column order is fixed and the
+         * remaining rows are searched.
+         */
+        private void pickStack(int stack) {
+            if (stack == box) {
+                System.arraycopy(stackLabels[box], 0, labels[1], 0, size + 1);
+                nextLabel[1] = stackNext[box];
+                less[1] = stackLess[box];
+                pickRow(1);
+                return;
+            }
+            for (int st = 0; st < box && budget >= 0; st++) {
+                if (stackUsed[st]) continue;
+                for (int[] order : boxOrders) {
+                    int cmp = fillStack(stack, st, order);
+                    if (!stackLess[stack] && found && cmp > 0) continue;
+                    stackUsed[st] = true;
+                    stackLess[stack + 1] = stackLess[stack] || !found || cmp < 0;
+                    pickStack(stack + 1);
+                    stackUsed[st] = false;
+                }
+            }
+        }
+
+        /** Places source stack st, columns in the given order, at position stack of the first row. */
+        private int fillStack(int stack, int st, int[] order) {
+            budget--;
+            int[] after = stackLabels[stack + 1];
+            System.arraycopy(stackLabels[stack], 0, after, 0, after.length);
+            int next = stackNext[stack];
+            int cmp = 0;
+            int start = rowOrder[0] * size;
+            for (int i = 0; i < box; i++) {
+                int position = stack * box + i;
+                int col = st * box + order[i];
+                colOrder[position] = col;
+                int value = source[start + col];
+                if (value != 0) {
+                    if (after[value] == 0) after[value] = next++;
+                    value = after[value];
+                }
+                grid[position] = (byte) value;
+                if (cmp == 0 && found) cmp = Integer.compare(value, best[position]);
+            }
+            stackNext[stack + 1] = next;
+            return cmp;
+        }
+
+        /**
+         * Tries every row allowed at position depth: any unused row of the current
+         * band, or any row of an unused band when a new band starts.
+         */
+        private void pickRow(int depth) {
+            if (depth == size) {
+                if (less[size]) record();
+                return;
+            }
+            int band = depth % box == 0 ? -1 : rowOrder[depth - 1] / box;
+            for (int row = 0; row < size && budget >= 0; row++) {
+                if (rowUsed[row]) continue;
+                if (band >= 0 ? row / box != band : bandUsed(row / box)) continue;
+                int cmp = fillRow(depth, row);
+                if (!less[depth] && found && cmp > 0) continue;
+                rowUsed[row] = true;
+                rowOrder[depth] = row;
+                less[depth + 1] = less[depth] || !found || cmp < 0;
+                pickRow(depth + 1);
+                rowUsed[row] = false;
+            }
+        }
+
+        /**
+         * Writes source row as canonical row depth, relabelling its digits, and
+         * compares it with the same row of the best grid.
+         */
+        private int fillRow(int depth, int row) {
+            budget--;
+            int[] after = labels[depth + 1];
+            System.arraycopy(labels[depth], 0, after, 0, after.length);
+            int next = nextLabel[depth];
+            int cmp = 0;
+            int offset = depth * size;
+            int start = row * size;
+            for (int j = 0; j < size; j++) {
+                int value = source[start + colOrder[j]];
+                if (value != 0) {
+                    if (after[value] == 0) after[value] = next++;
+                    value = after[value];
+                }
+                grid[offset + j] = (byte) value;
+                if (cmp == 0 && found) cmp = Integer.compare(value, best[offset + j]);
+            }
+            nextLabel[depth + 1] = next;
+            return cmp;
+        }
+
+        /** Rows then columns of the puzzle, as row indices of either orientation plus size for columns, fewest clues first. */
+        private Integer[] linesByClues() {
+            Integer[] lines = new Integer[2 * size];
+            int[] clues = new int[2 * size];
+            for (int line = 0; line < 2 * size; line++) {
+                lines[line] = line;
+                byte[] cells = orientations[line / size];
+                int start = (line % size) * size;
+                for (int i = 0; i < size; i++) {
+                    if (cells[start + i] != 0) clues[line]++;
+                }
+            }
+            Arrays.sort(lines, (x, y) -> Integer.compare(clues[x], clues[y]));
+            return lines;
+        }
+
+        /** The puzzle as it is, keyed apart from every canonical grid. */
+        private CanonicalForm identity() {
+            byte[] cells = orientations[0];
+            int[] order = new int[size];
+            int[] digits = new int[size + 1];
+            for (int i = 0; i < size; i++) order[i] = i;
+            for (int digit = 0; digit <= size; digit++) digits[digit] = digit;
+            String key = box + ":raw:" + new String(cells, StandardCharsets.ISO_8859_1);
+            return new CanonicalForm(key, size, false, order, order.clone(), digits);
+        }
+
+        private boolean bandUsed(int band) {
+            for (int row = band * box; row < (band + 1) * box; row++) {
+                if (rowUsed[row]) return true;
+            }
+            return false;
+        }
+
+        /** The current grid is the new best, so every prefix on the stack now equals it. */
+        private void record() {
+            Arrays.fill(less, false);
+            Arrays.fill(stackLess, false);
+            System.arraycopy(grid, 0, best, 0, grid.length);
+            found = true;
+            bestTransposed = transposed;
+            bestRowOrder = rowOrder.clone();
+            bestColOrder = colOrder.clone();
+            bestLabels = labels[size].clone();
+        }
+
+        private static int[][] permutations(int n) {
+            if (n == 1) return new int[][]{{0}};
+            int[][] smaller = permutations(n - 1);
+            int[][] result = new int[smaller.length * n][];
+            int k = 0;
+            for (int[] p : smaller) {
+                for (int pos = 0; pos < n; pos++) {
+                    int[] q = new int[n];
+                    for (int i = 0, j = 0; i < n; i++) q[i] = i == pos ? n - 1 : p[j++];
+                    result[k++] = q;
+                }
+            }
+            return result;
+        }
+    }
+}
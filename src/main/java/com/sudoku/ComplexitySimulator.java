@@ -1,17 +1,117 @@
 package com.sudoku;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 /**
- * Simulates computational load.
- * Reduced significantly to prevent freezing on Hard levels while still allowing
- * Parallel processing to demonstrate efficiency over Sequential.
+ * Artificial load charged for every digit a solver tries, so the parallelism
+ * demos have something worth spreading across cores. Solvers get it from
+ * SolverOptions.load(); the default is NONE, an empty call the JIT inlines away.
  */
-public class ComplexitySimulator {
-    // Reduced load to prevent freezing
-    private static final int LOAD = 150; 
+@FunctionalInterface
+public interface ComplexitySimulator {
+    /** No load at all. */
+    ComplexitySimulator NONE = () -> { };
+
+    /** The load the GUI has always used to compare sequential and parallel speed. */
+    ComplexitySimulator DEMO = fixed(150);
+
+    void simulate();
+
+    /**
+     * Charges times calls at once. Searches only try legal candidates but charge
+     * every digit they pass over too, so the load per node is what the original
+     * loop over all digits 1..size paid.
+     */
+    default void simulate(int times) {
+        for (int i = 0; i < times; i++) simulate();
+    }
+
+    /** Burns a fixed number of tan/sqrt iterations per call. */
+    static ComplexitySimulator fixed(int iterations) {
+        if (iterations < 0) throw new IllegalArgumentException("iterations must not be negative");
+        if (iterations == 0) return NONE;
+        return () -> {
+            double sum = 0;
+            for (int i = 0; i < iterations; i++) {
+                sum += Math.tan(Math.sqrt(i * 0.5));
+            }
+            // Never true, but keeps the loop from being optimized away
+            if (sum == Double.MIN_VALUE) Thread.onSpinWait();
+        };
+    }
 
-    public static void simulate() {
-        for (int i = 0; i < LOAD; i++) {
-            Math.tan(Math.sqrt(i * 0.5)); 
+    /** Spins on the CPU for about nanos per call, whatever the machine's speed. */
+    static ComplexitySimulator calibrated(long nanos) {
+        if (nanos < 0) throw new IllegalArgumentException("nanos must not be negative");
+        if (nanos == 0) return NONE;
+        return () -> {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+        };
+    }
+
+    /**
+     * Parks the thread for about nanos per call, like a blocking I/O wait.
+     * Inside a ForkJoinPool the wait is a managed block, so the pool can add
+     * a spare worker instead of losing parallelism.
+     */
+    static ComplexitySimulator blocking(long nanos) {
+        if (nanos < 0) throw new IllegalArgumentException("nanos must not be negative");
+        if (nanos == 0) return NONE;
+        return () -> {
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    private final long deadline = System.nanoTime() + nanos;
+
+                    @Override
+                    public boolean block() {
+                        LockSupport.parkNanos(deadline - System.nanoTime());
+                        return isReleasable();
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return System.nanoTime() - deadline >= 0;
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    /**
+     * Parses a load spec: none, demo, cpu:&lt;iterations&gt;, spin:&lt;duration&gt;
+     * or sleep:&lt;duration&gt;, where duration is a number with an optional
+     * ns, us or ms suffix (default ns).
+     */
+    static ComplexitySimulator parse(String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? spec : spec.substring(0, colon);
+        String amount = colon < 0 ? "" : spec.substring(colon + 1);
+        try {
+            switch (kind) {
+                case "none": return NONE;
+                case "demo": return DEMO;
+                case "cpu": return fixed(Integer.parseInt(amount));
+                case "spin": return calibrated(parseNanos(amount));
+                case "sleep": return blocking(parseNanos(amount));
+                default: break;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad load amount in '" + spec + "'");
         }
+        throw new IllegalArgumentException("Unknown load '" + spec + "', expected none, demo, cpu:<n>, spin:<t> or sleep:<t>");
+    }
+
+    private static long parseNanos(String amount) {
+        if (amount.endsWith("ms")) return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(amount.substring(0, amount.length() - 2)));
+        if (amount.endsWith("us")) return TimeUnit.MICROSECONDS.toNanos(Long.parseLong(amount.substring(0, amount.length() - 2)));
+        if (amount.endsWith("ns")) return Long.parseLong(amount.substring(0, amount.length() - 2));
+        return Long.parseLong(amount);
     }
-}
\ No newline at end of file
+}
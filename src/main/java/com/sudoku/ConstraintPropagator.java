@@ -0,0 +1,309 @@
+package com.sudoku;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Applies logical deduction rules to a board until none of them makes progress.
+ * Every placement and candidate elimination is recorded on a trail, so a solver
+ * can take a mark() before branching and undo(mark) when it backtracks.
+ */
+public class ConstraintPropagator {
+
+    public enum Rule {
+        NAKED_SINGLE,
+        HIDDEN_SINGLE,
+        NAKED_PAIR,
+        HIDDEN_PAIR,
+        POINTING_CLAIMING
+    }
+
+    public static final Set<Rule> ALL_RULES = Collections.unmodifiableSet(EnumSet.allOf(Rule.class));
+    public static final Set<Rule> NO_RULES = Collections.unmodifiableSet(EnumSet.noneOf(Rule.class));
+
+    private static final int PLACED = -1;
+
+    private final SudokuBoard board;
+    private final int size;
+    private final int cellCount;
+    private final int all;
+
+    // Units laid out as [rows | columns | boxes], each listing its cell indices
+    private final int[][] units;
+    private final int[] boxOf;
+    private final PropagationStats stats;
+    private final boolean[] enabled = new boolean[Rule.values().length];
+    private final boolean anyEnabled;
+
+    // Candidates ruled out by the elimination rules, on top of the board's own masks
+    private final int[] excluded;
+
+    // Undo log of (cell, previous excluded mask) pairs; PLACED marks a placement
+    private final int[] trail;
+    private int trailSize;
+
+    private final int[] positions;
+    private boolean conflict;
+    private SudokuObserver observer;
+
+    public ConstraintPropagator(SudokuBoard board, Set<Rule> rules, PropagationStats stats) {
+        this.board = board;
+        this.stats = stats;
+        this.size = board.size();
+        this.cellCount = board.cellCount();
+        this.all = board.allDigits();
+        this.units = board.geometry().units;
+        this.boxOf = board.geometry().boxOf;
+        this.excluded = new int[cellCount];
+        this.trail = new int[2 * cellCount * (size + 1)];
+        this.positions = new int[size];
+        for (Rule rule : rules) enabled[rule.ordinal()] = true;
+        this.anyEnabled = !rules.isEmpty();
+    }
+
+    /** Reports propagated placements and their undo to the observer, if any. */
+    public void setObserver(SudokuObserver observer) {
+        this.observer = observer;
+    }
+
+    public SudokuBoard getBoard() {
+        return board;
+    }
+
+    /** Legal digits for an empty cell after eliminations; 0 for a filled cell. */
+    public int candidates(int cell) {
+        if (board.get(cell) != 0) return 0;
+        return board.candidates(cell / size, cell % size) & ~excluded[cell];
+    }
+
+    /** Forgets the trail and all eliminations, e.g. after the board was reloaded with a new puzzle. */
+    public void reset() {
+        trailSize = 0;
+        Arrays.fill(excluded, 0);
+    }
+
+    public int mark() {
+        return trailSize;
+    }
+
+    /** Places num at cell and records it so it can be undone. */
+    public void place(int cell, int num) {
+        board.set(cell / size, cell % size, num);
+        trail[trailSize++] = cell;
+        trail[trailSize++] = PLACED;
+        if (observer != null) observer.onEvent(SolverEvent.CELL, SolverEvent.positionOf(cell, size), num);
+    }
+
+    /** Reverts every placement and elimination made since mark. */
+    public void undo(int mark) {
+        while (trailSize > mark) {
+            int old = trail[--trailSize];
+            int cell = trail[--trailSize];
+            if (old == PLACED) {
+                board.set(cell / size, cell % size, 0);
+                if (observer != null) observer.onEvent(SolverEvent.CELL, SolverEvent.positionOf(cell, size), 0);
+            } else {
+                excluded[cell] = old;
+            }
+        }
+    }
+
+    /**
+     * Runs the enabled rules to a fixpoint, cheapest first.
+     * Returns false if the board was found to be contradictory.
+     */
+    public boolean propagate() {
+        if (!anyEnabled) return true;
+        conflict = false;
+        boolean changed = true;
+        while (changed) {
+            changed = (enabled[Rule.NAKED_SINGLE.ordinal()] && nakedSingles())
+                    || (!conflict && enabled[Rule.HIDDEN_SINGLE.ordinal()] && hiddenSingles())
+                    || (!conflict && enabled[Rule.POINTING_CLAIMING.ordinal()] && pointingClaiming())
+                    || (!conflict && enabled[Rule.NAKED_PAIR.ordinal()] && nakedPairs())
+                    || (!conflict && enabled[Rule.HIDDEN_PAIR.ordinal()] && hiddenPairs());
+            if (conflict) return false;
+        }
+        return true;
+    }
+
+    private boolean nakedSingles() {
+        boolean changed = false;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (board.get(cell) != 0) continue;
+            int mask = candidates(cell);
+            if (mask == 0) {
+                conflict = true;
+                return false;
+            }
+            if ((mask & (mask - 1)) == 0) {
+                fill(cell, Integer.numberOfTrailingZeros(mask) + 1, Rule.NAKED_SINGLE);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean hiddenSingles() {
+        boolean changed = false;
+        for (int[] unit : units) {
+            int once = 0, twice = 0, placed = 0;
+            for (int cell : unit) {
+                int value = board.get(cell);
+                if (value != 0) {
+                    placed |= 1 << (value - 1);
+                    continue;
+                }
+                int mask = candidates(cell);
+                twice |= once & mask;
+                once |= mask;
+            }
+            if ((once | placed) != all) {
+                // Some digit has nowhere left to go in this unit
+                conflict = true;
+                return false;
+            }
+            for (int singles = once & ~twice & ~placed; singles != 0; singles &= singles - 1) {
+                int bit = singles & -singles;
+                int target = -1;
+                for (int cell : unit) {
+                    if ((candidates(cell) & bit) != 0) {
+                        target = cell;
+                        break;
+                    }
+                }
+                if (target < 0) {
+                    conflict = true;
+                    return false;
+                }
+                fill(target, Integer.numberOfTrailingZeros(bit) + 1, Rule.HIDDEN_SINGLE);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean nakedPairs() {
+        boolean changed = false;
+        for (int[] unit : units) {
+            for (int i = 0; i < size; i++) {
+                int pair = candidates(unit[i]);
+                if (Integer.bitCount(pair) != 2) continue;
+                for (int j = i + 1; j < size; j++) {
+                    if (candidates(unit[j]) != pair) continue;
+                    for (int k = 0; k < size; k++) {
+                        if (k != i && k != j) changed |= eliminate(unit[k], pair, Rule.NAKED_PAIR);
+                    }
+                    if (conflict) return false;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean hiddenPairs() {
+        boolean changed = false;
+        for (int[] unit : units) {
+            // positions[d] has bit i set when digit d + 1 can go in unit[i]
+            Arrays.fill(positions, 0);
+            for (int i = 0; i < size; i++) {
+                for (int mask = candidates(unit[i]); mask != 0; mask &= mask - 1) {
+                    positions[Integer.numberOfTrailingZeros(mask)] |= 1 << i;
+                }
+            }
+            for (int d1 = 0; d1 < size; d1++) {
+                if (Integer.bitCount(positions[d1]) != 2) continue;
+                for (int d2 = d1 + 1; d2 < size; d2++) {
+                    if (positions[d2] != positions[d1]) continue;
+                    int others = all & ~((1 << d1) | (1 << d2));
+                    for (int pos = positions[d1]; pos != 0; pos &= pos - 1) {
+                        changed |= eliminate(unit[Integer.numberOfTrailingZeros(pos)], others, Rule.HIDDEN_PAIR);
+                    }
+                    if (conflict) return false;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Pointing: a digit confined to one row or column of a box is removed from the
+     * rest of that line. Claiming: a digit confined to one box of a line is removed
+     * from the rest of that box.
+     */
+    private boolean pointingClaiming() {
+        boolean changed = false;
+        for (int u = 0; u < units.length; u++) {
+            int[] unit = units[u];
+            for (int d = 0; d < size; d++) {
+                int bit = 1 << d;
+                int first = -1;
+                boolean sameRow = true, sameCol = true, sameBox = true;
+                for (int cell : unit) {
+                    if ((candidates(cell) & bit) == 0) continue;
+                    if (first < 0) {
+                        first = cell;
+                    } else {
+                        sameRow &= row(cell) == row(first);
+                        sameCol &= col(cell) == col(first);
+                        sameBox &= box(cell) == box(first);
+                    }
+                }
+                if (first < 0) continue;
+                if (u >= 2 * size) {
+                    if (sameRow) changed |= eliminateOutside(row(first), u, bit);
+                    if (sameCol) changed |= eliminateOutside(size + col(first), u, bit);
+                } else if (sameBox) {
+                    changed |= eliminateOutside(2 * size + box(first), u, bit);
+                }
+                if (conflict) return false;
+            }
+        }
+        return changed;
+    }
+
+    private boolean eliminateOutside(int targetUnit, int sourceUnit, int bit) {
+        boolean changed = false;
+        for (int cell : units[targetUnit]) {
+            if (!inUnit(cell, sourceUnit)) changed |= eliminate(cell, bit, Rule.POINTING_CLAIMING);
+        }
+        return changed;
+    }
+
+    private void fill(int cell, int num, Rule rule) {
+        place(cell, num);
+        stats.recordFill(rule);
+    }
+
+    private boolean eliminate(int cell, int mask, Rule rule) {
+        int current = candidates(cell);
+        int removed = current & mask;
+        if (removed == 0) return false;
+        trail[trailSize++] = cell;
+        trail[trailSize++] = excluded[cell];
+        excluded[cell] |= removed;
+        stats.recordEliminations(rule, Integer.bitCount(removed));
+        if (current == removed) conflict = true;
+        return true;
+    }
+
+    private boolean inUnit(int cell, int unit) {
+        if (unit < size) return row(cell) == unit;
+        if (unit < 2 * size) return col(cell) == unit - size;
+        return box(cell) == unit - 2 * size;
+    }
+
+    private int row(int cell) {
+        return cell / size;
+    }
+
+    private int col(int cell) {
+        return cell % size;
+    }
+
+    private int box(int cell) {
+        return boxOf[cell];
+    }
+}
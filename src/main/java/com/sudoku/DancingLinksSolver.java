@@ -0,0 +1,246 @@
+package com.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exact-cover solver (Knuth's Algorithm X over Dancing Links).
+ * Sudoku maps to 4 * cells constraint columns (cell, row-digit, column-digit
+ * and box-digit) and cells * size candidate rows, one per (row, col, digit):
+ * 324 and 729 for 9x9. All links live in primitive int arrays indexed by node
+ * id; node 0 is the root header and nodes 1..columns are the column headers.
+ */
+public class DancingLinksSolver {
+    private final SudokuBoard originalBoard;
+    private final SolverMetrics metrics;
+    private final SearchCounters counters = new SearchCounters();
+    private final int size;
+    private final int box;
+    private final int cells;
+    private final int columns;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] columnSize;
+    // First node of each candidate row, used to select givens
+    private final int[] rowStart;
+
+    private final int[] solution;
+    private boolean consistent = true;
+
+    // Search state for the current enumeration
+    private long skip;
+    private long limit;
+    private long found;
+    private Consumer<SudokuBoard> consumer;
+
+    public DancingLinksSolver(SudokuBoard board) {
+        this(board, null);
+    }
+
+    /**
+     * Counts every search into metrics when it is not null: a node per column
+     * chosen, the rows of that column as candidates and a backtrack per row
+     * taken back.
+     */
+    public DancingLinksSolver(SudokuBoard board, SolverMetrics metrics) {
+        this.originalBoard = board;
+        this.metrics = metrics;
+        this.size = board.size();
+        this.box = board.boxSize();
+        this.cells = board.cellCount();
+        this.columns = 4 * cells;
+        int rows = cells * size;
+        int nodes = 1 + columns + 4 * rows;
+        this.left = new int[nodes];
+        this.right = new int[nodes];
+        this.up = new int[nodes];
+        this.down = new int[nodes];
+        this.column = new int[nodes];
+        this.rowOf = new int[nodes];
+        this.columnSize = new int[columns + 1];
+        this.rowStart = new int[rows];
+        this.solution = new int[cells];
+        build();
+        coverGivens();
+    }
+
+    /** Returns the first solution, or null if there is none. */
+    public SudokuBoard solve() {
+        return solveNth(0);
+    }
+
+    /** Returns the solution at targetIndex in search order, or null if there are fewer. */
+    public SudokuBoard solveNth(long targetIndex) {
+        SudokuBoard[] result = new SudokuBoard[1];
+        run(targetIndex, targetIndex + 1, b -> result[0] = b);
+        return result[0];
+    }
+
+    /** Counts solutions, stopping once limit is reached. */
+    public long countSolutions(long limit) {
+        return run(Long.MAX_VALUE, limit, null);
+    }
+
+    /** Passes up to limit solutions to consumer and returns how many were produced. */
+    public long enumerate(long limit, Consumer<SudokuBoard> consumer) {
+        return run(0, limit, consumer);
+    }
+
+    /** Same contract as MultiSolutionSolver.findAll. */
+    public List<SudokuBoard> findAll(int max) {
+        List<SudokuBoard> solutions = new ArrayList<>();
+        enumerate(max, solutions::add);
+        return solutions;
+    }
+
+    private long run(long skip, long limit, Consumer<SudokuBoard> consumer) {
+        if (!consistent || limit <= 0) return 0;
+        this.skip = skip;
+        this.limit = limit;
+        this.consumer = consumer;
+        this.found = 0;
+        try {
+            search(0);
+        } finally {
+            this.consumer = null;
+            counters.flushTo(metrics);
+        }
+        return found;
+    }
+
+    /** Returns true once the search should stop; the links are always restored on the way out. */
+    private boolean search(int k) {
+        if (right[0] == 0) {
+            found++;
+            if (found > skip && consumer != null) consumer.accept(decode(k));
+            return found >= limit;
+        }
+
+        // Branch on the column with the fewest remaining rows
+        int c = right[0];
+        for (int j = right[c]; j != 0; j = right[j]) {
+            if (columnSize[j] < columnSize[c]) c = j;
+        }
+        counters.nodes++;
+        counters.depth(k);
+        counters.candidateChecks += columnSize[c];
+        if (columnSize[c] == 0) return false;
+
+        cover(c);
+        boolean stop = false;
+        for (int r = down[c]; r != c && !stop; r = down[r]) {
+            solution[k] = r;
+            for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+            stop = search(k + 1);
+            for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            counters.backtracks++;
+        }
+        uncover(c);
+        return stop;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    private SudokuBoard decode(int k) {
+        SudokuBoard board = originalBoard.copy();
+        for (int i = 0; i < k; i++) {
+            int row = rowOf[solution[i]];
+            int cell = row / size;
+            board.set(cell / size, cell % size, row % size + 1);
+        }
+        return board;
+    }
+
+    private void build() {
+        // Root and column headers form one circular horizontal list
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c - 1;
+            right[c] = c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        left[0] = columns;
+        right[columns] = 0;
+
+        int node = columns + 1;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int b = (r / box) * box + c / box;
+                for (int d = 0; d < size; d++) {
+                    int row = (r * size + c) * size + d;
+                    int first = node;
+                    rowStart[row] = first;
+                    int[] constraints = {
+                            r * size + c,
+                            cells + r * size + d,
+                            2 * cells + c * size + d,
+                            3 * cells + b * size + d
+                    };
+                    for (int i = 0; i < constraints.length; i++, node++) {
+                        int col = constraints[i] + 1;
+                        column[node] = col;
+                        rowOf[node] = row;
+                        // Append to the bottom of the column
+                        up[node] = up[col];
+                        down[node] = col;
+                        down[up[col]] = node;
+                        up[col] = node;
+                        columnSize[col]++;
+                        // Link into the row's circular list
+                        left[node] = (i == 0) ? node + 3 : node - 1;
+                        right[node] = (i == 3) ? first : node + 1;
+                    }
+                }
+            }
+        }
+    }
+
+    private void coverGivens() {
+        boolean[] covered = new boolean[columns + 1];
+        for (int cell = 0; cell < cells; cell++) {
+            int value = originalBoard.get(cell);
+            if (value == 0) continue;
+            int start = rowStart[cell * size + value - 1];
+            int j = start;
+            do {
+                if (covered[column[j]]) {
+                    // Two givens claim the same constraint
+                    consistent = false;
+                    return;
+                }
+                covered[column[j]] = true;
+                cover(column[j]);
+                j = right[j];
+            } while (j != start);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sudoku;
+
+import java.util.function.Consumer;
+
+/**
+ * Exact-cover engine built on DancingLinksSolver. Of the SolverOptions it only
+ * uses metrics(): column selection already works as minimum-remaining-values
+ * and there is no propagation or load to apply.
+ */
+public class DancingLinksSolverEngine implements Solver {
+    private final SolverMetrics metrics;
+
+    public DancingLinksSolverEngine() {
+        this(SolverOptions.DEFAULT);
+    }
+
+    public DancingLinksSolverEngine(SolverOptions options) {
+        this.metrics = options.metrics();
+    }
+
+    @Override
+    public String name() {
+        return "dlx";
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        return new DancingLinksSolver(board, metrics).solve();
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        return new DancingLinksSolver(board, metrics).solveNth(index);
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return new DancingLinksSolver(board, metrics).countSolutions(limit);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        return new DancingLinksSolver(board, metrics).enumerate(limit, consumer);
+    }
+}
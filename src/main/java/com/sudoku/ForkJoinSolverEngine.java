@@ -0,0 +1,68 @@
+package com.sudoku;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Fork/Join engine built on ParallelSudokuSolver. Counting runs in parallel,
+ * and the Nth solution is located by parallel subtree counts in the same
+ * deterministic order as the sequential search.
+ */
+public class ForkJoinSolverEngine implements Solver {
+    private final SolverOptions options;
+    private final SudokuObserver observer;
+    private final ForkJoinPool pool;
+    private final SequentialSolverEngine sequential;
+    private final Set<CancellationToken> running = ConcurrentHashMap.newKeySet();
+
+    public ForkJoinSolverEngine(SolverOptions options, SudokuObserver observer) {
+        this(options, observer, ParallelSudokuSolver.defaultPool());
+    }
+
+    /** Runs every solve on the given pool, e.g. a tenant pool from SolverPools. */
+    public ForkJoinSolverEngine(SolverOptions options, SudokuObserver observer, ForkJoinPool pool) {
+        this.options = options;
+        this.observer = observer;
+        this.pool = pool;
+        this.sequential = new SequentialSolverEngine(options, observer);
+    }
+
+    @Override
+    public String name() {
+        return "forkjoin";
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        CancellationToken token = new CancellationToken();
+        running.add(token);
+        try {
+            return ParallelSudokuSolver.solve(pool, board, observer, options, new PropagationStats(), token);
+        } finally {
+            running.remove(token);
+        }
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        return index == 0 ? solve(board) : ParallelSudokuSolver.solveNth(pool, board, options, index);
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return ParallelSudokuSolver.countSolutions(pool, board, options, limit);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        return sequential.enumerate(board, limit, consumer);
+    }
+
+    @Override
+    public void cancel() {
+        running.forEach(CancellationToken::cancel);
+        sequential.cancel();
+    }
+}
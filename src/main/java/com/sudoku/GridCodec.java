@@ -0,0 +1,100 @@
+package com.sudoku;
+
+/**
+ * Packs boards into bytes with as few bits per cell as the grid needs:
+ * 4 for 9x9 (41 bytes a grid), 5 for 16x16 and 25x25. A solution is stored
+ * relative to its puzzle: only the digits of the puzzle's blank cells, so a
+ * 9x9 puzzle with 25 clues and its solution take 41 + 28 bytes.
+ */
+public final class GridCodec {
+    private GridCodec() {
+    }
+
+    /** Bits per cell for a grid with the given side: enough for 0..size. */
+    public static int bitsPerCell(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /** Bytes taken by encodeGrid for a board of the given box size. */
+    public static int gridBytes(int boxSize) {
+        int size = boxSize * boxSize;
+        return bytesFor(size * size, bitsPerCell(size));
+    }
+
+    /** Bytes taken by encodeFill for a board of the given box size with this many blanks. */
+    public static int fillBytes(int boxSize, int blanks) {
+        return bytesFor(blanks, bitsPerCell(boxSize * boxSize));
+    }
+
+    /** Every cell of board, blanks as 0, row-major. */
+    public static byte[] encodeGrid(SudokuBoard board) {
+        int bits = bitsPerCell(board.size());
+        byte[] out = new byte[gridBytes(board.boxSize())];
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            write(out, 0, cell * bits, bits, board.get(cell));
+        }
+        return out;
+    }
+
+    /** Reads a grid written by encodeGrid, starting at offset in data. */
+    public static SudokuBoard decodeGrid(byte[] data, int offset, int boxSize) {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        int bits = bitsPerCell(board.size());
+        byte[] cells = new byte[board.cellCount()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            int value = read(data, offset, cell * bits, bits);
+            if (value > board.size()) throw new IllegalArgumentException("Cell value " + value + " out of range");
+            cells[cell] = (byte) value;
+        }
+        board.restore(cells);
+        return board;
+    }
+
+    /** The digits solution has at the blank cells of puzzle, row-major. */
+    public static byte[] encodeFill(SudokuBoard puzzle, SudokuBoard solution) {
+        int bits = bitsPerCell(puzzle.size());
+        byte[] out = new byte[fillBytes(puzzle.boxSize(), puzzle.emptyCells())];
+        int index = 0;
+        for (int cell = 0; cell < puzzle.cellCount(); cell++) {
+            if (puzzle.get(cell) == 0) write(out, 0, index++ * bits, bits, solution.get(cell));
+        }
+        return out;
+    }
+
+    /** puzzle with its blanks filled from data written by encodeFill, starting at offset. */
+    public static SudokuBoard decodeFill(SudokuBoard puzzle, byte[] data, int offset) {
+        int bits = bitsPerCell(puzzle.size());
+        byte[] cells = new byte[puzzle.cellCount()];
+        puzzle.snapshot(cells);
+        int index = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) continue;
+            int value = read(data, offset, index++ * bits, bits);
+            if (value == 0 || value > puzzle.size()) {
+                throw new IllegalArgumentException("Cell value " + value + " out of range");
+            }
+            cells[cell] = (byte) value;
+        }
+        SudokuBoard board = puzzle.copy();
+        board.restore(cells);
+        return board;
+    }
+
+    private static int bytesFor(int values, int bits) {
+        return (values * bits + 7) / 8;
+    }
+
+    private static void write(byte[] data, int offset, int bitPos, int bits, int value) {
+        for (int i = bits - 1; i >= 0; i--, bitPos++) {
+            if ((value >>> i & 1) != 0) data[offset + (bitPos >>> 3)] |= (byte) (0x80 >>> (bitPos & 7));
+        }
+    }
+
+    private static int read(byte[] data, int offset, int bitPos, int bits) {
+        int value = 0;
+        for (int i = 0; i < bits; i++, bitPos++) {
+            value = value << 1 | (data[offset + (bitPos >>> 3)] >>> (7 - (bitPos & 7)) & 1);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sudoku;
+
+import java.util.function.Consumer;
+
+/**
+ * Times another engine's calls into its SolverMetrics: every solve and
+ * solveNth goes into the latency histogram, and the time until the first
+ * solution of solve, solveNth and enumerate into the first-solution one.
+ * The engine's own search counters come from SolverOptions.withMetrics;
+ * SolverRegistry.createMetered sets up both.
+ */
+public class MeteredSolver implements Solver {
+    private final Solver delegate;
+    private final SolverMetrics metrics;
+
+    public MeteredSolver(Solver delegate, SolverMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public SolverMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        long start = System.nanoTime();
+        SudokuBoard solution = delegate.solve(board);
+        record(start, solution);
+        return solution;
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        long start = System.nanoTime();
+        SudokuBoard solution = delegate.solveNth(board, index);
+        record(start, solution);
+        return solution;
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return delegate.countSolutions(board, limit);
+    }
+
+    @Override
+    public boolean isUnique(SudokuBoard board) {
+        return delegate.isUnique(board);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        long start = System.nanoTime();
+        boolean[] first = {true};
+        return delegate.enumerate(board, limit, solution -> {
+            if (first[0]) {
+                first[0] = false;
+                metrics.recordFirstSolution(System.nanoTime() - start);
+            }
+            consumer.accept(solution);
+        });
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+
+    private void record(long start, SudokuBoard solution) {
+        long elapsed = System.nanoTime() - start;
+        metrics.recordSolve(elapsed);
+        if (solution != null) metrics.recordFirstSolution(elapsed);
+    }
+}
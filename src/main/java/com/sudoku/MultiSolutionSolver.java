@@ -2,49 +2,118 @@ package com.sudoku;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class MultiSolutionSolver {
     private final SudokuBoard originalBoard;
-    private final List<SudokuBoard> solutions = new ArrayList<>();
+    private final SolverOptions options;
+    private final PropagationStats propagationStats = new PropagationStats();
+    private final SearchCounters counters = new SearchCounters();
+    private BranchingHeuristic heuristic;
+    private ConstraintPropagator propagator;
+    private Consumer<SudokuBoard> consumer;
+    private long skip;
+    private long limit;
+    private long found;
     
     public MultiSolutionSolver(SudokuBoard board) {
+        this(board, SolverOptions.DEFAULT);
+    }
+
+    public MultiSolutionSolver(SudokuBoard board, SolverOptions options) {
         this.originalBoard = board;
+        this.options = options;
+    }
+
+    /** Counts solutions without copying any of them, stopping once limit is reached. */
+    public long countSolutions(long limit) {
+        return run(Long.MAX_VALUE, limit, null);
+    }
+
+    /**
+     * Returns the solution at index in search order, or null if there are fewer.
+     * The solutions before it are only counted, so just this one is copied.
+     */
+    public SudokuBoard solveNth(long index) {
+        if (index < 0) return null;
+        SudokuBoard[] result = new SudokuBoard[1];
+        run(index, index + 1, b -> result[0] = b);
+        return result[0];
+    }
+
+    /** True if the puzzle has exactly one solution; stops looking at the second. */
+    public boolean isUnique() {
+        return countSolutions(2) == 1;
     }
 
     public List<SudokuBoard> findAll(int max) {
-        solutions.clear();
-        solve(originalBoard.copy(), max);
+        List<SudokuBoard> solutions = new ArrayList<>();
+        enumerate(max, solutions::add);
         return solutions;
     }
 
-    private void solve(SudokuBoard b, int max) {
-        if (solutions.size() >= max) return;
+    /**
+     * Streams up to limit solutions to consumer in search order, handing each one
+     * over as a fresh copy. Returns how many were produced.
+     */
+    public long enumerate(long limit, Consumer<SudokuBoard> consumer) {
+        return run(0, limit, consumer);
+    }
 
-        int[] empty = findEmpty(b);
-        if (empty == null) {
-            solutions.add(b.copy());
-            return;
-        }
+    /**
+     * Lazy stream of every solution, each a fresh board. Call parallel() to
+     * search subtrees on the fork-join common pool (or on the pool the terminal
+     * operation runs in); limit(), findAny() and the like end the search early.
+     */
+    public Stream<SudokuBoard> stream() {
+        return StreamSupport.stream(new SolutionSpliterator(originalBoard, options), false);
+    }
 
-        int r = empty[0];
-        int c = empty[1];
+    public PropagationStats getPropagationStats() {
+        return propagationStats;
+    }
 
-        for (int num = 1; num <= 9; num++) {
-            if (b.isSafe(r, c, num)) {
-                b.set(r, c, num);
-                solve(b, max);
-                b.set(r, c, 0);
-                if (solutions.size() >= max) return;
-            }
+    private long run(long skip, long limit, Consumer<SudokuBoard> consumer) {
+        this.skip = skip;
+        this.limit = limit;
+        this.consumer = consumer;
+        this.found = 0;
+        if (limit <= 0) return 0;
+        SudokuBoard b = originalBoard.copy();
+        heuristic = options.heuristic();
+        propagator = options.newPropagator(b, propagationStats);
+        try {
+            if (propagator.propagate()) solve(b, 0);
+        } finally {
+            this.consumer = null;
+            counters.flushTo(options.metrics());
         }
+        return found;
     }
 
-    private int[] findEmpty(SudokuBoard b) {
-        for (int i=0; i<9; i++) {
-            for (int j=0; j<9; j++) {
-                if (b.get(i, j) == 0) return new int[]{i,j};
-            }
+    private void solve(SudokuBoard b, int depth) {
+        if (found >= limit) return;
+        counters.nodes++;
+        counters.depth(depth);
+
+        int empty = heuristic.select(propagator);
+        if (empty < 0) {
+            found++;
+            if (found > skip && consumer != null) consumer.accept(b.copy());
+            return;
+        }
+
+        for (int mask = propagator.candidates(empty); mask != 0; mask &= mask - 1) {
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            counters.candidateChecks++;
+            int mark = propagator.mark();
+            propagator.place(empty, num);
+            if (propagator.propagate()) solve(b, depth + 1);
+            propagator.undo(mark);
+            counters.backtracks++;
+            if (found >= limit) return;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
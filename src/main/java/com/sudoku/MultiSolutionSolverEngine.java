@@ -0,0 +1,39 @@
+package com.sudoku;
+
+import java.util.function.Consumer;
+
+/**
+ * Enumerating engine built on MultiSolutionSolver.
+ */
+public class MultiSolutionSolverEngine implements Solver {
+    private final SolverOptions options;
+
+    public MultiSolutionSolverEngine(SolverOptions options, SudokuObserver observer) {
+        this.options = options;
+    }
+
+    @Override
+    public String name() {
+        return "multi";
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        return solveNth(board, 0);
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        return new MultiSolutionSolver(board, options).solveNth(index);
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return new MultiSolutionSolver(board, options).countSolutions(limit);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        return new MultiSolutionSolver(board, options).enumerate(limit, consumer);
+    }
+}
@@ -1,12 +1,155 @@
 package com.sudoku;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Entry points for Fork/Join solves. Overloads without a pool share one
+ * default pool built from PoolConfig.DEFAULT; pass a pool (for example one from
+ * SolverPools) to isolate a caller's work.
+ */
 public class ParallelSudokuSolver {
-    private static final ForkJoinPool pool = new ForkJoinPool();
+    private static final ForkJoinPool pool = PoolConfig.DEFAULT.newPool();
+    // Branching levels expanded per step of solveNth before counting subtrees
+    private static final int NTH_SPLIT_LEVELS = 6;
+
+    public static ForkJoinPool defaultPool() {
+        return pool;
+    }
 
     public static SudokuBoard solve(SudokuBoard board, SudokuObserver observer) {
-        SudokuSolverTask task = new SudokuSolverTask(board.copy(), 0, observer);
-        return pool.invoke(task);
+        return solve(pool, board, observer, SolverOptions.DEFAULT, new PropagationStats(), new CancellationToken());
+    }
+
+    public static SudokuBoard solve(SudokuBoard board, SudokuObserver observer,
+                                    SolverOptions options, PropagationStats propagationStats) {
+        return solve(pool, board, observer, options, propagationStats, new CancellationToken());
+    }
+
+    /** Solves on the calling thread's behalf; cancelling token makes this return early with null. */
+    public static SudokuBoard solve(SudokuBoard board, SudokuObserver observer, SolverOptions options,
+                                    PropagationStats propagationStats, CancellationToken token) {
+        return solve(pool, board, observer, options, propagationStats, token);
+    }
+
+    public static SudokuBoard solve(ForkJoinPool pool, SudokuBoard board, SudokuObserver observer,
+                                    SolverOptions options, PropagationStats propagationStats,
+                                    CancellationToken token) {
+        return pool.invoke(newTask(board, observer, options, propagationStats, token));
+    }
+
+    /** Solves with a deadline, cancelling the search and throwing TimeoutException once it passes. */
+    public static SudokuBoard solve(SudokuBoard board, SudokuObserver observer, long timeout, TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        return submit(board, observer, SolverOptions.DEFAULT, new PropagationStats()).await(timeout, unit);
+    }
+
+    /** Starts a solve in the background and returns a handle to wait for or cancel it. */
+    public static SolveHandle submit(SudokuBoard board, SudokuObserver observer,
+                                     SolverOptions options, PropagationStats propagationStats) {
+        return submit(pool, board, observer, options, propagationStats);
+    }
+
+    public static SolveHandle submit(ForkJoinPool pool, SudokuBoard board, SudokuObserver observer,
+                                     SolverOptions options, PropagationStats propagationStats) {
+        CancellationToken token = new CancellationToken();
+        SudokuSolverTask task = newTask(board, observer, options, propagationStats, token);
+        pool.execute(task);
+        return new SolveHandle(task, token);
+    }
+
+    /**
+     * Counts solutions across the pool without copying any, stopping once limit
+     * is reached. Tasks share one counter, so the result is exact up to limit.
+     */
+    public static long countSolutions(SudokuBoard board, SolverOptions options, long limit) {
+        return countSolutions(pool, board, options, limit);
+    }
+
+    public static long countSolutions(ForkJoinPool pool, SudokuBoard board, SolverOptions options, long limit) {
+        if (limit <= 0) return 0;
+        AtomicLong counter = new AtomicLong();
+        pool.invoke(new SolutionCountTask(board.copy(), options, new PropagationStats(), counter, limit));
+        return Math.min(counter.get(), limit);
+    }
+
+    /**
+     * Returns the solution at index in sequential search order, or null if there
+     * are fewer. Instead of walking every earlier solution one by one, it expands
+     * the search tree a few levels deep, counts the solutions under each of those
+     * subtrees in parallel (capped at what is still needed), skips whole subtrees
+     * before the target and repeats inside the subtree that holds it.
+     */
+    public static SudokuBoard solveNth(ForkJoinPool pool, SudokuBoard board, SolverOptions options, long index) {
+        if (index < 0) return null;
+        SudokuBoard current = board.copy();
+        ConstraintPropagator propagator = options.newPropagator(current, new PropagationStats());
+        if (!propagator.propagate()) return null;
+
+        BranchingHeuristic heuristic = options.heuristic();
+        long remaining = index;
+        while (heuristic.select(propagator) >= 0) {
+            List<int[]> paths = new ArrayList<>();
+            List<SudokuBoard> subtrees = new ArrayList<>();
+            collectSubtrees(current, propagator, heuristic, new int[NTH_SPLIT_LEVELS], 0, paths, subtrees);
+
+            // One subtree at a time, in order: each count is parallel inside, and
+            // nothing after the target is counted
+            int target = -1;
+            for (int i = 0; i < subtrees.size(); i++) {
+                long count = countSolutions(pool, subtrees.get(i), options, remaining + 1);
+                if (remaining < count) {
+                    target = i;
+                    break;
+                }
+                remaining -= count;
+            }
+            if (target < 0) return null;
+
+            // Step into the target subtree with the same propagator the sequential search would use
+            int radix = current.size() + 1;
+            for (int step : paths.get(target)) {
+                propagator.place(step / radix, step % radix);
+                propagator.propagate();
+            }
+        }
+        return remaining == 0 ? current : null;
+    }
+
+    /** Collects, in search order, the nodes NTH_SPLIT_LEVELS branchings below the current one. */
+    private static void collectSubtrees(SudokuBoard b, ConstraintPropagator propagator, BranchingHeuristic heuristic,
+                                        int[] path, int depth, List<int[]> paths, List<SudokuBoard> subtrees) {
+        int cell = heuristic.select(propagator);
+        if (cell < 0 || depth == path.length) {
+            paths.add(Arrays.copyOf(path, depth));
+            subtrees.add(b.copy());
+            return;
+        }
+        for (int mask = propagator.candidates(cell); mask != 0; mask &= mask - 1) {
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            int mark = propagator.mark();
+            propagator.place(cell, num);
+            // Digits go up to 25, so steps are packed in base size + 1 rather than in 4 bits
+            path[depth] = cell * (b.size() + 1) + num;
+            if (propagator.propagate()) {
+                collectSubtrees(b, propagator, heuristic, path, depth + 1, paths, subtrees);
+            }
+            propagator.undo(mark);
+        }
+    }
+
+    /** True if the puzzle has exactly one solution. */
+    public static boolean isUnique(SudokuBoard board) {
+        return countSolutions(board, SolverOptions.DEFAULT, 2) == 1;
+    }
+
+    private static SudokuSolverTask newTask(SudokuBoard board, SudokuObserver observer, SolverOptions options,
+                                            PropagationStats propagationStats, CancellationToken token) {
+        return new SudokuSolverTask(board.copy(), 0, observer, options, propagationStats, token);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.sudoku;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable description of a ForkJoinPool for parallel solves. Start from
+ * DEFAULT, derive variants with the with* methods and build pools with newPool().
+ * Pools are bounded: besides parallelism workers they may add at most
+ * maxSpareThreads compensation threads.
+ */
+public class PoolConfig {
+    public static final PoolConfig DEFAULT = new PoolConfig(
+            Runtime.getRuntime().availableProcessors(), false, "sudoku-worker", null, null,
+            Runtime.getRuntime().availableProcessors());
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final int parallelism;
+    private final boolean asyncMode;
+    private final String threadNamePrefix;
+    private final ForkJoinWorkerThreadFactory threadFactory;
+    private final Thread.UncaughtExceptionHandler exceptionHandler;
+    private final int maxSpareThreads;
+
+    private PoolConfig(int parallelism, boolean asyncMode, String threadNamePrefix,
+                       ForkJoinWorkerThreadFactory threadFactory,
+                       Thread.UncaughtExceptionHandler exceptionHandler, int maxSpareThreads) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        if (maxSpareThreads < 0) throw new IllegalArgumentException("maxSpareThreads must not be negative: " + maxSpareThreads);
+        this.parallelism = parallelism;
+        this.asyncMode = asyncMode;
+        this.threadNamePrefix = threadNamePrefix;
+        this.threadFactory = threadFactory;
+        this.exceptionHandler = exceptionHandler;
+        this.maxSpareThreads = maxSpareThreads;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    public PoolConfig withParallelism(int parallelism) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    /** FIFO scheduling of forked tasks that are never joined; the solvers join, so LIFO (false) is usual. */
+    public PoolConfig withAsyncMode(boolean asyncMode) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    /** Names worker threads prefix-0, prefix-1, ... when no custom factory is set. */
+    public PoolConfig withThreadNamePrefix(String threadNamePrefix) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    public PoolConfig withThreadFactory(ForkJoinWorkerThreadFactory threadFactory) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    public PoolConfig withUncaughtExceptionHandler(Thread.UncaughtExceptionHandler exceptionHandler) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    public PoolConfig withMaxSpareThreads(int maxSpareThreads) {
+        return new PoolConfig(parallelism, asyncMode, threadNamePrefix, threadFactory, exceptionHandler, maxSpareThreads);
+    }
+
+    public ForkJoinPool newPool() {
+        ForkJoinWorkerThreadFactory factory = threadFactory != null ? threadFactory : namedFactory(threadNamePrefix);
+        // Once the spare threads are used up, keep running without compensation instead of rejecting work
+        return new ForkJoinPool(parallelism, factory, exceptionHandler, asyncMode,
+                parallelism, parallelism + maxSpareThreads, 1, pool -> true,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static ForkJoinWorkerThreadFactory namedFactory(String prefix) {
+        // Counted per pool: a new worker has no pool index until it registers, after naming
+        AtomicInteger counter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + "-" + counter.getAndIncrement());
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.sudoku;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many cells each propagation rule filled and how many candidates
+ * it eliminated. Safe to share between the tasks of a parallel solve.
+ */
+public class PropagationStats {
+    private static final ConstraintPropagator.Rule[] RULES = ConstraintPropagator.Rule.values();
+
+    private final LongAdder[] filled = new LongAdder[RULES.length];
+    private final LongAdder[] eliminated = new LongAdder[RULES.length];
+
+    public PropagationStats() {
+        for (int i = 0; i < RULES.length; i++) {
+            filled[i] = new LongAdder();
+            eliminated[i] = new LongAdder();
+        }
+    }
+
+    void recordFill(ConstraintPropagator.Rule rule) {
+        filled[rule.ordinal()].increment();
+    }
+
+    void recordEliminations(ConstraintPropagator.Rule rule, int count) {
+        eliminated[rule.ordinal()].add(count);
+    }
+
+    public long filled(ConstraintPropagator.Rule rule) {
+        return filled[rule.ordinal()].sum();
+    }
+
+    public long eliminated(ConstraintPropagator.Rule rule) {
+        return eliminated[rule.ordinal()].sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (ConstraintPropagator.Rule rule : RULES) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(rule).append(": filled=").append(filled(rule))
+              .append(" eliminated=").append(eliminated(rule));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package com.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams puzzles from a file in the one-puzzle-per-line format: 81 cells in
+ * row-major order, digits 1-9 with '.' or '0' for blanks. Larger grids use
+ * one character per cell too, with A for 10, B for 11 and so on (A-G on 16x16,
+ * A-P on 25x25), in either case. Anything after the last cell up to the end of
+ * the line is ignored, as are blank lines and lines starting with '#'. The
+ * file is memory-mapped window by window and parsed byte by byte straight into
+ * boards, so no String is created per line.
+ */
+public class PuzzleReader implements Iterator<SudokuBoard>, AutoCloseable {
+    private static final long WINDOW = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int boxSize;
+    private final int maxDigit;
+    private final byte[] cells;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long lineNumber;
+    private SudokuBoard next;
+
+    public PuzzleReader(Path file) throws IOException {
+        this(file, SudokuBoard.SUBGRID_SIZE);
+    }
+
+    /** Reads boxSize² x boxSize² puzzles, e.g. 4 for 16x16. */
+    public PuzzleReader(Path file, int boxSize) throws IOException {
+        SudokuBoard shape = new SudokuBoard(boxSize);
+        this.boxSize = boxSize;
+        this.maxDigit = shape.size();
+        this.cells = new byte[shape.cellCount()];
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /**
+     * Parses one puzzle written in the file format, e.g. a puzzle given on the
+     * command line or in code. Characters after the last cell are ignored.
+     */
+    public static SudokuBoard parse(CharSequence line, int boxSize) {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        byte[] cells = new byte[board.cellCount()];
+        for (int i = 0; i < cells.length; i++) {
+            int b = i < line.length() ? line.charAt(i) : -1;
+            int value = value(b, board.size());
+            if (value < 0) throw new IllegalArgumentException(badCell(cells.length, board.size(), b, i));
+            cells[i] = (byte) value;
+        }
+        board.restore(cells);
+        return board;
+    }
+
+    /** A sequential stream over the remaining puzzles; closing it closes this reader. */
+    public Stream<SudokuBoard> stream() {
+        Spliterator<SudokuBoard> spliterator =
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) next = readBoard();
+        return next != null;
+    }
+
+    @Override
+    public SudokuBoard next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        SudokuBoard board = next;
+        next = null;
+        return board;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SudokuBoard readBoard() {
+        while (position < size) {
+            int b = read();
+            if (b == '\n') {
+                lineNumber++;
+            } else if (b == '#') {
+                skipLine();
+            } else if (b != '\r') {
+                cells[0] = parseCell(b, 0);
+                for (int i = 1; i < cells.length; i++) {
+                    cells[i] = parseCell(read(), i);
+                }
+                skipLine();
+                SudokuBoard board = new SudokuBoard(boxSize);
+                board.restore(cells);
+                return board;
+            }
+        }
+        return null;
+    }
+
+    private byte parseCell(int b, int index) {
+        int value = value(b, maxDigit);
+        if (value >= 0) return (byte) value;
+        throw new IllegalArgumentException(
+                "Line " + (lineNumber + 1) + ": " + badCell(cells.length, maxDigit, b, index));
+    }
+
+    /** The cell value of character b, 0 for a blank, or -1 if it is not a cell. */
+    private static int value(int b, int maxDigit) {
+        int digit = -1;
+        if (b >= '1' && b <= '9') digit = b - '0';
+        else if (b >= 'A' && b <= 'Z') digit = b - 'A' + 10;
+        else if (b >= 'a' && b <= 'z') digit = b - 'a' + 10;
+        if (digit > 0 && digit <= maxDigit) return digit;
+        if (b == '.' || b == '0') return 0;
+        return -1;
+    }
+
+    private static String badCell(int cellCount, int maxDigit, int b, int index) {
+        return "expected " + cellCount + " cells of " + PuzzleWriter.symbols(maxDigit) + ", '.' or '0' but found "
+                + describe(b) + " at column " + (index + 1);
+    }
+
+    private void skipLine() {
+        while (position < size) {
+            if (read() == '\n') {
+                lineNumber++;
+                return;
+            }
+        }
+    }
+
+    /** Next byte of the file, or -1 at the end. */
+    private int read() {
+        if (position >= size) {
+            return -1;
+        }
+        if (window == null || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        int b = window.get((int) (position - windowStart));
+        position++;
+        return b;
+    }
+
+    private void map(long start) {
+        try {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String describe(int b) {
+        if (b < 0) return "end of input";
+        if (b == '\n' || b == '\r') return "end of line";
+        return "'" + (char) b + "'";
+    }
+}
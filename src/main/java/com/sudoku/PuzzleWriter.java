@@ -0,0 +1,74 @@
+package com.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes boards in the same one-character-per-cell line format PuzzleReader
+ * reads, with '.' for empty cells, through a buffered channel. A file may mix
+ * sizes, but PuzzleReader expects one size per file.
+ */
+public class PuzzleWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    public PuzzleWriter(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /** Writes to any channel, e.g. Channels.newChannel(System.out); close() closes it. */
+    public PuzzleWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public void write(SudokuBoard board) {
+        int cells = board.cellCount();
+        if (buffer.remaining() < cells + 1) flush();
+        for (int cell = 0; cell < cells; cell++) {
+            buffer.put((byte) symbol(board.get(cell)));
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /** The character for a cell value: '.' for empty, 1-9, then A for 10 and up. */
+    public static char symbol(int value) {
+        if (value == 0) return '.';
+        return (char) (value <= 9 ? '0' + value : 'A' + value - 10);
+    }
+
+    /** The range of symbols used for digits 1..maxDigit, e.g. "1-9" or "1-9, A-G". */
+    static String symbols(int maxDigit) {
+        return maxDigit <= 9 ? "1-" + maxDigit : "1-9, A-" + symbol(maxDigit);
+    }
+
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.sudoku;
+
+/**
+ * Plain counters owned by one search or one Fork/Join task, so the hot loop
+ * only bumps fields. They are added to the engine's SolverMetrics in one go
+ * when the search or task finishes, and not at all when metrics are off.
+ */
+final class SearchCounters {
+    long nodes;
+    long backtracks;
+    long candidateChecks;
+    long forks;
+    long steals;
+    int maxDepth;
+
+    void depth(int depth) {
+        if (depth > maxDepth) maxDepth = depth;
+    }
+
+    /** Adds everything counted so far to metrics, if any, and starts again from zero. */
+    void flushTo(SolverMetrics metrics) {
+        if (metrics != null) metrics.add(this);
+        nodes = 0;
+        backtracks = 0;
+        candidateChecks = 0;
+        forks = 0;
+        steals = 0;
+        maxDepth = 0;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sudoku;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the Fork/Join search in SudokuSolverTask.
+ * Every task gets an id while a recording is running, so SearchProfile can
+ * rebuild the task tree from a recording afterwards. Without a recording the
+ * events are disabled and cost an isEnabled() check each.
+ */
+final class SearchEvents {
+    static final String TASK = "com.sudoku.SearchTask";
+    static final String FORK = "com.sudoku.Fork";
+    static final String JOIN = "com.sudoku.Join";
+    static final String LEAF = "com.sudoku.Leaf";
+    static final String SOLUTION = "com.sudoku.SolutionFound";
+    static final String[] ALL = {TASK, FORK, JOIN, LEAF, SOLUTION};
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private SearchEvents() {
+    }
+
+    /**
+     * Starts recording just these events to file, e.g. around a CLI solve;
+     * stopping the recording writes the file. A JVM started with
+     * -XX:StartFlightRecording records them too.
+     */
+    static Recording startRecording(Path file) throws IOException {
+        FlightRecorder.register(Task.class);
+        FlightRecorder.register(Fork.class);
+        FlightRecorder.register(Join.class);
+        FlightRecorder.register(Leaf.class);
+        FlightRecorder.register(Solution.class);
+        Recording recording = new Recording();
+        recording.setName("sudoku-search");
+        for (String name : ALL) recording.enable(name);
+        recording.setDestination(file);
+        recording.start();
+        return recording;
+    }
+
+    /** A fresh task id while tasks are being recorded, else 0. */
+    static long nextId() {
+        return Task.ENABLED.isEnabled() ? IDS.incrementAndGet() : 0;
+    }
+
+    @Name(TASK)
+    @Label("Search Task")
+    @Description("One SudokuSolverTask.compute(), from start to its last join")
+    @Category({"Sudoku", "Fork/Join"})
+    @StackTrace(false)
+    static final class Task extends Event {
+        // Shared instance for cheap enabled checks; never committed
+        static final Task ENABLED = new Task();
+
+        @Label("Task Id")
+        long taskId;
+        @Label("Parent Id")
+        long parentId;
+        @Label("Depth")
+        int depth;
+        @Label("Branch Position")
+        @Description("Cell the parent set for this task, packed as in SolverEvent.position; -1 for the root")
+        int position;
+        @Label("Branch Digit")
+        int digit;
+        @Label("Nodes")
+        @Description("Search nodes this task visited itself, not counting forked subtasks")
+        long nodes;
+        @Label("Forks")
+        int forks;
+        @Label("Stolen")
+        boolean stolen;
+    }
+
+    @Name(FORK)
+    @Label("Task Fork")
+    @Category({"Sudoku", "Fork/Join"})
+    @StackTrace(false)
+    static final class Fork extends Event {
+        @Label("Task Id")
+        long taskId;
+        @Label("Child Id")
+        long childId;
+        @Label("Depth")
+        int depth;
+        @Label("Position")
+        int position;
+        @Label("Digit")
+        int digit;
+    }
+
+    @Name(JOIN)
+    @Label("Task Join")
+    @Description("Time a task spent joining its subtasks, including any it ran itself meanwhile")
+    @Category({"Sudoku", "Fork/Join"})
+    @StackTrace(false)
+    static final class Join extends Event {
+        @Label("Task Id")
+        long taskId;
+        @Label("Depth")
+        int depth;
+        @Label("Subtasks")
+        int subtasks;
+    }
+
+    @Name(LEAF)
+    @Label("Sequential Leaf")
+    @Description("Sequential search below a cell, from its start until its donated branches are handed back")
+    @Category({"Sudoku", "Fork/Join"})
+    @StackTrace(false)
+    static final class Leaf extends Event {
+        @Label("Task Id")
+        long taskId;
+        @Label("Depth")
+        int depth;
+        @Label("Position")
+        int position;
+        @Label("Nodes")
+        long nodes;
+    }
+
+    @Name(SOLUTION)
+    @Label("Solution Found")
+    @Category({"Sudoku", "Fork/Join"})
+    @StackTrace(false)
+    static final class Solution extends Event {
+        @Label("Task Id")
+        long taskId;
+        @Label("Depth")
+        int depth;
+        @Label("Nodes")
+        @Description("Nodes the finding task had visited so far")
+        long nodes;
+    }
+}
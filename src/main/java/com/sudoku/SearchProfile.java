@@ -0,0 +1,256 @@
+package com.sudoku;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Offline report on a flight recording of Fork/Join solves (see SearchEvents).
+ * Rebuilds the task tree of every solve, then prints how busy each worker
+ * was, the solve with the longest wall time, its critical path and its
+ * heaviest tasks. A task's own time is its duration minus the time it spent
+ * joining, and the critical path follows the subtask with the longest chain
+ * of own times, so work / span shows how much parallelism a solve offered.
+ * Reports are only as complete as the recording: tasks that began before it
+ * started show up as separate roots.
+ */
+public class SearchProfile {
+    private static final int TOP_TASKS = 5;
+
+    private final Map<Long, TaskNode> tasks = new HashMap<>();
+    private final List<TaskNode> roots = new ArrayList<>();
+    private final Map<Long, WorkerStats> workers = new TreeMap<>();
+    private final Map<Long, List<Long>> solutionTimes = new HashMap<>();
+    private long leaves;
+    private long leafNanos;
+    private long forks;
+    private long start = Long.MAX_VALUE;
+    private long end = Long.MIN_VALUE;
+
+    private static final class TaskNode {
+        long id;
+        long parentId;
+        int depth;
+        int position;
+        int digit;
+        long nodes;
+        int forks;
+        boolean stolen;
+        long start;
+        long end;
+        long joinNanos;
+        long threadId;
+        String thread;
+        final List<TaskNode> children = new ArrayList<>();
+        long span;
+        TaskNode critical;
+
+        long selfNanos() {
+            return Math.max(0, end - start - joinNanos);
+        }
+    }
+
+    private static final class WorkerStats {
+        final String name;
+        long tasks;
+        long stolen;
+        long nodes;
+        long busyNanos;
+
+        WorkerStats(String name) {
+            this.name = name;
+        }
+    }
+
+    private SearchProfile() {
+    }
+
+    /** Reads every search event in the recording and rebuilds the task trees. */
+    public static SearchProfile read(Path recording) throws IOException {
+        SearchProfile profile = new SearchProfile();
+        Map<Long, Long> joins = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            switch (event.getEventType().getName()) {
+                case SearchEvents.TASK: profile.addTask(event); break;
+                case SearchEvents.JOIN: joins.merge(event.getLong("taskId"), nanos(event), Long::sum); break;
+                case SearchEvents.FORK: profile.forks++; break;
+                case SearchEvents.LEAF:
+                    profile.leaves++;
+                    profile.leafNanos += nanos(event);
+                    break;
+                case SearchEvents.SOLUTION:
+                    profile.solutionTimes.computeIfAbsent(event.getLong("taskId"), id -> new ArrayList<>())
+                            .add(epochNanos(event.getEndTime()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        profile.link(joins);
+        return profile;
+    }
+
+    /** Number of Fork/Join solves (task trees) in the recording. */
+    public int solves() {
+        return roots.size();
+    }
+
+    public int taskCount() {
+        return tasks.size();
+    }
+
+    public void print(PrintStream out) {
+        if (tasks.isEmpty()) {
+            out.println("No " + SearchEvents.TASK + " events; record a forkjoin solve with --record");
+            return;
+        }
+        long wall = end - start;
+        long work = 0;
+        long span = 0;
+        for (TaskNode root : roots) span += root.span;
+        for (TaskNode task : tasks.values()) work += task.selfNanos();
+        out.printf("%d solves, %d tasks, %d forks, %d leaves (%.1f ms), %.1f ms recorded%n",
+                roots.size(), tasks.size(), forks, leaves, leafNanos / 1e6, wall / 1e6);
+        out.printf("work %.1f ms, critical paths %.1f ms, parallelism %.2f%n",
+                work / 1e6, span / 1e6, span == 0 ? 0 : (double) work / span);
+
+        out.println();
+        out.println("Workers:");
+        out.printf("  %-40s %8s %8s %12s %10s %6s%n", "thread", "tasks", "stolen", "nodes", "busy ms", "util");
+        for (WorkerStats worker : workers.values()) {
+            out.printf("  %-40s %8d %8d %12d %10.1f %5.1f%%%n", worker.name, worker.tasks, worker.stolen,
+                    worker.nodes, worker.busyNanos / 1e6, utilization(worker));
+        }
+
+        TaskNode slowest = roots.stream().max(Comparator.comparingLong(root -> root.end - root.start)).orElseThrow();
+        List<TaskNode> subtree = new ArrayList<>();
+        collect(slowest, subtree);
+        long subtreeWork = 0;
+        for (TaskNode task : subtree) subtreeWork += task.selfNanos();
+        out.println();
+        out.printf("Slowest solve: task %d, %.3f ms wall, %d tasks, work %.3f ms, span %.3f ms, parallelism %.2f%n",
+                slowest.id, (slowest.end - slowest.start) / 1e6, subtree.size(), subtreeWork / 1e6,
+                slowest.span / 1e6, slowest.span == 0 ? 0 : (double) subtreeWork / slowest.span);
+        for (TaskNode task : subtree) {
+            for (long time : solutionTimes.getOrDefault(task.id, List.of())) {
+                out.printf("  solution found by task %d at depth %d after %.3f ms%n",
+                        task.id, task.depth, (time - slowest.start) / 1e6);
+            }
+        }
+
+        out.println("  Critical path:");
+        out.printf("    %5s %8s %6s %10s %10s %10s  %s%n", "depth", "cell", "digit", "self ms", "span ms", "nodes",
+                "thread");
+        for (TaskNode task = slowest; task != null; task = task.critical) {
+            out.printf("    %5d %8s %6s %10.3f %10.3f %10d  %s%s%n", task.depth, describePosition(task.position),
+                    task.position < 0 ? "-" : Integer.toString(task.digit), task.selfNanos() / 1e6, task.span / 1e6,
+                    task.nodes, task.thread, task.stolen ? " (stolen)" : "");
+        }
+
+        out.println("  Heaviest tasks:");
+        subtree.sort(Comparator.comparingLong(TaskNode::selfNanos).reversed());
+        for (TaskNode task : subtree.subList(0, Math.min(TOP_TASKS, subtree.size()))) {
+            out.printf("    task %d at depth %d, cell %s: %.3f ms, %d nodes, %d forks%n", task.id, task.depth,
+                    describePosition(task.position), task.selfNanos() / 1e6, task.nodes, task.forks);
+        }
+    }
+
+    /**
+     * Each worker's busy time as a percentage of the recorded wall time, by
+     * Java thread id. A thread's own times never overlap, so none exceeds 100.
+     */
+    Map<Long, Double> utilization() {
+        Map<Long, Double> utilization = new TreeMap<>();
+        for (Map.Entry<Long, WorkerStats> entry : workers.entrySet()) {
+            utilization.put(entry.getKey(), utilization(entry.getValue()));
+        }
+        return utilization;
+    }
+
+    private double utilization(WorkerStats worker) {
+        long wall = end - start;
+        return wall == 0 ? 0 : 100.0 * worker.busyNanos / wall;
+    }
+
+    private void addTask(RecordedEvent event) {
+        TaskNode task = new TaskNode();
+        task.id = event.getLong("taskId");
+        task.parentId = event.getLong("parentId");
+        task.depth = event.getInt("depth");
+        task.position = event.getInt("position");
+        task.digit = event.getInt("digit");
+        task.nodes = event.getLong("nodes");
+        task.forks = event.getInt("forks");
+        task.stolen = event.getBoolean("stolen");
+        task.start = epochNanos(event.getStartTime());
+        task.end = epochNanos(event.getEndTime());
+        RecordedThread thread = event.getThread();
+        task.threadId = thread == null ? -1 : thread.getJavaThreadId();
+        task.thread = thread == null ? "?" : thread.getJavaName();
+        // Tasks without an id started before the recording did; they can't be linked
+        if (task.id != 0) tasks.put(task.id, task);
+        start = Math.min(start, task.start);
+        end = Math.max(end, task.end);
+    }
+
+    private void link(Map<Long, Long> joins) {
+        for (TaskNode task : tasks.values()) {
+            task.joinNanos = joins.getOrDefault(task.id, 0L);
+            TaskNode parent = tasks.get(task.parentId);
+            if (parent != null) {
+                parent.children.add(task);
+            } else {
+                roots.add(task);
+            }
+            // Pools name their workers prefix-0, prefix-1, ..., so names repeat across pools
+            WorkerStats worker = workers.computeIfAbsent(task.threadId, id -> new WorkerStats(task.thread));
+            worker.tasks++;
+            if (task.stolen) worker.stolen++;
+            worker.nodes += task.nodes;
+            worker.busyNanos += task.selfNanos();
+        }
+        roots.sort(Comparator.comparingLong(root -> root.start));
+        for (TaskNode root : roots) computeSpan(root);
+    }
+
+    private static void computeSpan(TaskNode task) {
+        long longest = 0;
+        for (TaskNode child : task.children) {
+            computeSpan(child);
+            if (child.span > longest) {
+                longest = child.span;
+                task.critical = child;
+            }
+        }
+        task.span = task.selfNanos() + longest;
+    }
+
+    private static void collect(TaskNode task, List<TaskNode> into) {
+        into.add(task);
+        for (TaskNode child : task.children) collect(child, into);
+    }
+
+    /** "r3c7" for a packed SolverEvent position, "-" for none. */
+    private static String describePosition(int position) {
+        if (position < 0) return "-";
+        return "r" + (SolverEvent.row(position) + 1) + "c" + (SolverEvent.col(position) + 1);
+    }
+
+    private static long nanos(RecordedEvent event) {
+        return event.getDuration().toNanos();
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
@@ -0,0 +1,58 @@
+package com.sudoku;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Single-threaded backtracking engine built on SequentialSudokuSolver.
+ * Counting and enumeration go through MultiSolutionSolver with the same options.
+ */
+public class SequentialSolverEngine implements Solver {
+    private final SolverOptions options;
+    private final SudokuObserver observer;
+    private final Set<CancellationToken> running = ConcurrentHashMap.newKeySet();
+
+    public SequentialSolverEngine(SolverOptions options, SudokuObserver observer) {
+        this.options = options;
+        this.observer = observer;
+    }
+
+    @Override
+    public String name() {
+        return "sequential";
+    }
+
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        return solveNth(board, 0);
+    }
+
+    @Override
+    public SudokuBoard solveNth(SudokuBoard board, long index) {
+        CancellationToken token = new CancellationToken();
+        running.add(token);
+        try {
+            SequentialSudokuSolver solver =
+                    new SequentialSudokuSolver(board.copy(), observer, Math.toIntExact(index), options, token);
+            return solver.solve() ? solver.getSolvedBoard() : null;
+        } finally {
+            running.remove(token);
+        }
+    }
+
+    @Override
+    public long countSolutions(SudokuBoard board, long limit) {
+        return new MultiSolutionSolver(board, options).countSolutions(limit);
+    }
+
+    @Override
+    public long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer) {
+        return new MultiSolutionSolver(board, options).enumerate(limit, consumer);
+    }
+
+    @Override
+    public void cancel() {
+        running.forEach(CancellationToken::cancel);
+    }
+}
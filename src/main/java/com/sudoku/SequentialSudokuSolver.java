@@ -2,24 +2,65 @@ package com.sudoku;
 
 public class SequentialSudokuSolver {
     private final SudokuBoard board;
-    private final SudokuObserver observer;
     private final int solutionsToSkip;
+    private final BranchingHeuristic heuristic;
+    private final PropagationStats propagationStats = new PropagationStats();
+    private final ConstraintPropagator propagator;
+    private final CancellationToken token;
+    private final ComplexitySimulator load;
+    private final SolverMetrics metrics;
+    private final SearchCounters counters = new SearchCounters();
     private int solutionsFoundCount = 0;
 
     public SequentialSudokuSolver(SudokuBoard board, SudokuObserver observer, int targetIndex) {
+        this(board, observer, targetIndex, SolverOptions.DEFAULT);
+    }
+
+    public SequentialSudokuSolver(SudokuBoard board, SudokuObserver observer, int targetIndex,
+                                  SolverOptions options) {
+        this(board, observer, targetIndex, options, new CancellationToken());
+    }
+
+    /** Cancelling token makes solve() give up and return false. */
+    public SequentialSudokuSolver(SudokuBoard board, SudokuObserver observer, int targetIndex,
+                                  SolverOptions options, CancellationToken token) {
         this.board = board;
-        this.observer = observer;
         this.solutionsToSkip = targetIndex;
+        this.heuristic = options.heuristic();
+        this.propagator = options.newPropagator(board, propagationStats);
+        this.propagator.setObserver(observer);
+        this.token = token;
+        this.load = options.load();
+        this.metrics = options.metrics();
+    }
+
+    /**
+     * Loads another puzzle into this solver's board so the solver (and its
+     * propagator) can be reused for the next solve() without reallocating.
+     */
+    public void reset(SudokuBoard puzzle) {
+        puzzle.copyInto(board);
+        propagator.reset();
+        solutionsFoundCount = 0;
     }
 
     public boolean solve() {
-        return solveRecursive(0, 0);
+        try {
+            int start = propagator.mark();
+            if (propagator.propagate() && solveRecursive(0)) return true;
+            propagator.undo(start);
+            return false;
+        } finally {
+            counters.flushTo(metrics);
+        }
     }
 
-    private boolean solveRecursive(int row, int col) {
-        int[] next = findNextEmpty();
-        
-        if (next == null) {
+    private boolean solveRecursive(int depth) {
+        counters.nodes++;
+        counters.depth(depth);
+        int next = heuristic.select(propagator);
+
+        if (next < 0) {
             if (solutionsFoundCount == solutionsToSkip) {
                 return true; 
             } else {
@@ -28,42 +69,31 @@ public class SequentialSudokuSolver {
             }
         }
 
-        int r = next[0];
-        int c = next[1];
+        int charged = 0;
+        for (int mask = propagator.candidates(next); mask != 0 && !token.isCancelled(); mask &= mask - 1) {
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            counters.candidateChecks++;
 
-        for (int num = 1; num <= 9; num++) {
-            // Artificial load to allow accurate speed comparison with Parallel
-            ComplexitySimulator.simulate();
+            // Artificial load (if configured) to allow accurate speed comparison with Parallel,
+            // charged for every digit up to num as if the illegal ones had been tried too
+            load.simulate(num - charged);
+            charged = num;
 
-            if (board.isSafe(r, c, num)) {
-                board.set(r, c, num);
-                
-                // Visual Simulation ONLY (No Text Log)
-                if (observer != null) {
-                    observer.onCellUpdate(r, c, num);
-                    try { Thread.sleep(1); } catch (InterruptedException e) {}
-                }
+            // The propagator forwards placements to the observer (Visual Simulation ONLY, No Text Log)
+            int mark = propagator.mark();
+            propagator.place(next, num);
 
-                if (solveRecursive(r, c)) return true;
+            if (propagator.propagate() && solveRecursive(depth + 1)) return true;
 
-                // Backtrack
-                board.set(r, c, 0);
-                if (observer != null) {
-                    observer.onCellUpdate(r, c, 0);
-                }
-            }
+            // Backtrack, including everything propagation filled in
+            propagator.undo(mark);
+            counters.backtracks++;
         }
+        if (!token.isCancelled()) load.simulate(board.size() - charged);
         return false;
     }
-    
-    private int[] findNextEmpty() {
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if (board.get(r, c) == 0) return new int[]{r, c};
-            }
-        }
-        return null;
-    }
 
     public SudokuBoard getSolvedBoard() { return board; }
+
+    public PropagationStats getPropagationStats() { return propagationStats; }
 }
\ No newline at end of file
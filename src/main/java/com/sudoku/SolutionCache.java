@@ -0,0 +1,109 @@
+package com.sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of solutions keyed by CanonicalForm, so rotations, band and
+ * stack swaps and relabellings of a puzzle already solved are answered by
+ * mapping the stored solution back instead of searching again. The least
+ * recently used entry is evicted once capacity is reached. Only solutions are
+ * stored: a null result may just mean the solve was cancelled.
+ * <p>
+ * Canonicalizing a 9x9 puzzle costs well under a millisecond, which is more
+ * than an easy puzzle takes to solve, so the cache pays off on hard puzzles,
+ * slow engines or an artificial load rather than on easy traffic.
+ * Safe to share between threads; two threads missing on the same puzzle at
+ * once both solve it.
+ */
+public class SolutionCache implements SolutionLookup {
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Canonical solutions as snapshot() bytes, in access order
+    private final Map<String, byte[]> entries;
+
+    public SolutionCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                if (size() <= SolutionCache.this.capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached solution of puzzle, mapped onto it, or else solves it with
+     * solver and caches the result. Returns null if solver does.
+     */
+    @Override
+    public SudokuBoard solve(SudokuBoard puzzle, Function<SudokuBoard, SudokuBoard> solver) {
+        CanonicalForm form = CanonicalForm.of(puzzle);
+        byte[] cached;
+        synchronized (entries) {
+            cached = entries.get(form.key());
+        }
+        if (cached != null) {
+            hits.increment();
+            SudokuBoard canonical = new SudokuBoard(puzzle.boxSize());
+            canonical.restore(cached);
+            return form.fromCanonical(canonical);
+        }
+        misses.increment();
+        SudokuBoard solution = solver.apply(puzzle);
+        if (solution != null) {
+            byte[] cells = new byte[solution.cellCount()];
+            form.toCanonical(solution).snapshot(cells);
+            synchronized (entries) {
+                entries.put(form.key(), cells);
+            }
+        }
+        return solution;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long lookups = hits() + misses();
+        return lookups == 0 ? 0 : (double) hits() / lookups;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cache: %d hits, %d misses (%.1f%% hit rate), %d evictions, %d/%d entries",
+                hits(), misses(), 100 * hitRate(), evictions(), size(), capacity);
+    }
+}
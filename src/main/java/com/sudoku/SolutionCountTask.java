@@ -0,0 +1,104 @@
+package com.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fork/Join solution count over one subtree. Every task adds its solutions to
+ * one shared counter and stops as soon as the counter reaches the limit.
+ * Solutions are only counted, never copied. Splitting uses
+ * SudokuSolverTask.shouldFork: branches are forked while the subtree is large
+ * and the local queue is short, and searched sequentially otherwise.
+ */
+@SuppressWarnings("serial") // ForkJoinTask is Serializable, but tasks never leave the pool
+public class SolutionCountTask extends RecursiveAction {
+
+    private final SudokuBoard board;
+    private final SolverOptions options;
+    private final PropagationStats propagationStats;
+    private final AtomicLong counter;
+    private final long limit;
+    private final SearchCounters counters = new SearchCounters();
+    private ConstraintPropagator propagator;
+    private int depth;
+    private Thread forkedBy;
+
+    public SolutionCountTask(SudokuBoard board, SolverOptions options, PropagationStats propagationStats,
+                             AtomicLong counter, long limit) {
+        this.board = board;
+        this.options = options;
+        this.propagationStats = propagationStats;
+        this.counter = counter;
+        this.limit = limit;
+    }
+
+    @Override
+    protected void compute() {
+        if (forkedBy != null && forkedBy != Thread.currentThread()) counters.steals++;
+        try {
+            search();
+        } finally {
+            counters.flushTo(options.metrics());
+        }
+    }
+
+    private void search() {
+        if (counter.get() >= limit) return;
+        propagator = options.newPropagator(board, propagationStats);
+        if (!propagator.propagate()) return;
+
+        counters.nodes++;
+        counters.depth(depth);
+        int cell = options.heuristic().select(propagator);
+        if (cell < 0) {
+            counter.incrementAndGet();
+            return;
+        }
+        int candidates = propagator.candidates(cell);
+        if (!SudokuSolverTask.shouldFork(board, candidates)) {
+            count(cell, depth);
+            return;
+        }
+
+        List<SolutionCountTask> subtasks = new ArrayList<>();
+        for (int mask = candidates; mask != 0; mask &= mask - 1) {
+            SudokuBoard child = BoardPool.acquire(board);
+            child.set(cell / board.size(), cell % board.size(), Integer.numberOfTrailingZeros(mask) + 1);
+            SolutionCountTask task = new SolutionCountTask(child, options, propagationStats, counter, limit);
+            task.depth = depth + 1;
+            task.forkedBy = Thread.currentThread();
+            counters.forks++;
+            counters.candidateChecks++;
+            task.fork();
+            subtasks.add(task);
+        }
+        for (SolutionCountTask task : subtasks) {
+            task.join();
+            BoardPool.release(task.board);
+        }
+    }
+
+    /** Sequential count below cell; returns true once the limit is reached. */
+    private boolean count(int cell, int level) {
+        if (cell < 0) return counter.incrementAndGet() >= limit;
+        for (int mask = propagator.candidates(cell); mask != 0; mask &= mask - 1) {
+            counters.candidateChecks++;
+            int mark = propagator.mark();
+            propagator.place(cell, Integer.numberOfTrailingZeros(mask) + 1);
+            boolean done = propagator.propagate() && count(next(level + 1), level + 1);
+            propagator.undo(mark);
+            counters.backtracks++;
+            if (done || counter.get() >= limit) return true;
+        }
+        return false;
+    }
+
+    /** Counts the node at level and returns the cell to branch on there. */
+    private int next(int level) {
+        counters.nodes++;
+        counters.depth(level);
+        return options.heuristic().select(propagator);
+    }
+}
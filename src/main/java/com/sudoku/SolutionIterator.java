@@ -0,0 +1,148 @@
+package com.sudoku;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Resumable depth-first enumeration of a puzzle's solutions. The search stack
+ * lives in this object, so each next() continues right after the previous
+ * solution instead of searching again from the start; stepping through K
+ * solutions costs one search, not K. Solutions come in the same order as
+ * SequentialSudokuSolver's targetIndex and MultiSolutionSolver.
+ */
+public class SolutionIterator implements Iterator<SudokuBoard> {
+    private final SudokuBoard board;
+    private final ConstraintPropagator propagator;
+    private final BranchingHeuristic heuristic;
+    private final ComplexitySimulator load;
+    private final CancellationToken token;
+
+    // One frame per branching level: the cell, the digits not tried yet, the
+    // highest digit load was charged for and the propagator mark taken before
+    // the current digit was placed
+    private final int[] cells;
+    private final int[] remaining;
+    private final int[] charged;
+    private final int[] marks;
+    private final boolean[] placed;
+    private int depth;
+
+    private boolean started;
+    private boolean ready;
+    private boolean exhausted;
+    private long produced;
+
+    public SolutionIterator(SudokuBoard puzzle) {
+        this(puzzle, SolverOptions.DEFAULT, null, new CancellationToken());
+    }
+
+    /** Cancelling token ends the iteration early; observer may be null. */
+    public SolutionIterator(SudokuBoard puzzle, SolverOptions options, SudokuObserver observer,
+                            CancellationToken token) {
+        this.board = puzzle.copy();
+        this.propagator = options.newPropagator(board, new PropagationStats());
+        this.propagator.setObserver(observer);
+        this.heuristic = options.heuristic();
+        this.load = options.load();
+        this.token = token;
+        this.cells = new int[board.cellCount()];
+        this.remaining = new int[board.cellCount()];
+        this.charged = new int[board.cellCount()];
+        this.marks = new int[board.cellCount()];
+        this.placed = new boolean[board.cellCount()];
+    }
+
+    /** Reports the iterator's placements from now on, e.g. to a new GUI worker. */
+    public void setObserver(SudokuObserver observer) {
+        propagator.setObserver(observer);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready && !exhausted) {
+            ready = advance();
+            exhausted = !ready;
+        }
+        return ready;
+    }
+
+    /** Returns a copy of the next solution. */
+    @Override
+    public SudokuBoard next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        produced++;
+        return board.copy();
+    }
+
+    /** Moves past up to n solutions without copying them and returns how many were skipped. */
+    public long skip(long n) {
+        long skipped = 0;
+        while (skipped < n && hasNext()) {
+            ready = false;
+            produced++;
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /** Index the next solution will have, i.e. the number of solutions passed so far. */
+    public long position() {
+        return produced;
+    }
+
+    /** Stops a search running in another thread; the iterator then reports no further solutions. */
+    public void cancel() {
+        token.cancel();
+    }
+
+    /** True if the iteration stopped because the token was cancelled rather than because it ran out. */
+    public boolean isCancelled() {
+        return exhausted && token.isCancelled();
+    }
+
+    /** Runs the search until the board holds the next solution; false when there is none. */
+    private boolean advance() {
+        if (!started) {
+            started = true;
+            if (!propagator.propagate()) return false;
+            if (push()) return true;
+        }
+        while (depth > 0 && !token.isCancelled()) {
+            int d = depth - 1;
+            if (placed[d]) {
+                propagator.undo(marks[d]);
+                placed[d] = false;
+            }
+            if (remaining[d] == 0) {
+                // Charge the digits above the last candidate, as the loop over all digits did
+                load.simulate(board.size() - charged[d]);
+                depth--;
+                continue;
+            }
+            int num = Integer.numberOfTrailingZeros(remaining[d]) + 1;
+            remaining[d] &= remaining[d] - 1;
+            load.simulate(num - charged[d]);
+            charged[d] = num;
+
+            marks[d] = propagator.mark();
+            propagator.place(cells[d], num);
+            placed[d] = true;
+            // A solution leaves the frame placed; the next call undoes it first
+            if (propagator.propagate() && push()) return true;
+        }
+        return false;
+    }
+
+    /** Opens a frame at the next branching cell, or returns true if the board is full. */
+    private boolean push() {
+        int cell = heuristic.select(propagator);
+        if (cell < 0) return true;
+        cells[depth] = cell;
+        remaining[depth] = propagator.candidates(cell);
+        charged[depth] = 0;
+        placed[depth] = false;
+        depth++;
+        return false;
+    }
+}
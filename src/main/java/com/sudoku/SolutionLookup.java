@@ -0,0 +1,15 @@
+package com.sudoku;
+
+import java.util.function.Function;
+
+/**
+ * Somewhere solved puzzles are remembered: SolutionCache in memory,
+ * SolutionStore on disk. CachingSolver puts either in front of an engine.
+ */
+public interface SolutionLookup {
+    /**
+     * Returns a remembered solution of puzzle, or else solves it with solver and
+     * remembers the result. Returns null if solver does.
+     */
+    SudokuBoard solve(SudokuBoard puzzle, Function<SudokuBoard, SudokuBoard> solver);
+}
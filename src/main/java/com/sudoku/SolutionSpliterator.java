@@ -0,0 +1,89 @@
+package com.sudoku;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Lazily enumerates a puzzle's solutions for a Stream. The spliterator holds
+ * a queue of unexplored subtrees; trySplit hands half of them to a new
+ * spliterator, expanding the next subtree one branching level when fewer than
+ * two are left. Each subtree is searched with a SolutionIterator, so solutions
+ * are found only as the stream pulls them and limit() or findAny() stop the
+ * search. No encounter order is promised, since it would depend on the splits.
+ */
+public class SolutionSpliterator implements Spliterator<SudokuBoard> {
+    private final SolverOptions options;
+    private final ArrayDeque<SudokuBoard> pending;
+    private SolutionIterator current;
+    private long estimate = Long.MAX_VALUE;
+
+    public SolutionSpliterator(SudokuBoard puzzle, SolverOptions options) {
+        this(options, new ArrayDeque<>());
+        pending.add(puzzle.copy());
+    }
+
+    private SolutionSpliterator(SolverOptions options, ArrayDeque<SudokuBoard> pending) {
+        this.options = options;
+        this.pending = pending;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SudokuBoard> action) {
+        while (current == null || !current.hasNext()) {
+            SudokuBoard subtree = pending.pollFirst();
+            if (subtree == null) {
+                current = null;
+                return false;
+            }
+            // A stream that short-circuits just stops pulling, so nothing ever cancels these
+            current = new SolutionIterator(subtree, options, null, new CancellationToken());
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<SudokuBoard> trySplit() {
+        while (pending.size() == 1) {
+            if (pending.peekFirst().emptyCells() < SudokuSolverTask.MIN_SPLIT_EMPTY) return null;
+            expand(pending.pollFirst());
+        }
+        if (pending.size() < 2) return null;
+
+        ArrayDeque<SudokuBoard> half = new ArrayDeque<>();
+        for (int n = pending.size() / 2; n > 0; n--) {
+            half.addLast(pending.pollFirst());
+        }
+        estimate >>>= 1;
+        SolutionSpliterator prefix = new SolutionSpliterator(options, half);
+        prefix.estimate = estimate;
+        return prefix;
+    }
+
+    /** Replaces subtree by its children at the next branching cell, in search order. */
+    private void expand(SudokuBoard subtree) {
+        ConstraintPropagator propagator = options.newPropagator(subtree, new PropagationStats());
+        if (!propagator.propagate()) return;
+        int cell = options.heuristic().select(propagator);
+        if (cell < 0) {
+            pending.addFirst(subtree);
+            return;
+        }
+        for (int mask = propagator.candidates(cell); mask != 0; mask &= mask - 1) {
+            SudokuBoard child = subtree.copy();
+            child.set(cell / subtree.size(), cell % subtree.size(), Integer.numberOfTrailingZeros(mask) + 1);
+            pending.addLast(child);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL | IMMUTABLE;
+    }
+}
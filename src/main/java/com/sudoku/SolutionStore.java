@@ -0,0 +1,370 @@
+package com.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent map from puzzles to solutions, so restarts and repeated batch
+ * runs reuse earlier work. Puzzles are matched exactly, not by CanonicalForm.
+ * <p>
+ * Records are appended to the store file and never rewritten: a length, a
+ * CRC32 and the GridCodec bytes of the puzzle and its fill, 78 bytes for a
+ * 25-clue 9x9 puzzle. A memory-mapped open-addressing hash table next to it
+ * (the same path plus ".idx") maps puzzles to record offsets, so a lookup is
+ * one probe and one read. The index is marked clean only by close(); after a
+ * crash it is rebuilt from the records, and a torn record at the end of the
+ * file is cut off. Only one process may open a store at a time.
+ * Safe to share between threads.
+ */
+public class SolutionStore implements SolutionLookup, AutoCloseable {
+    private static final long MAGIC = 0x53_55_44_4F_4B_55_49_58L; // "SUDOKUIX"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int COUNT_OFFSET = 16;
+    private static final int INDEXED_OFFSET = 24;
+    private static final int CLEAN_OFFSET = 32;
+    private static final int SLOT = 16;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER) / SLOT);
+    // Record header: body length and CRC32 of the body
+    private static final int RECORD_HEADER = 8;
+    private static final int MIN_BODY = 1 + GridCodec.gridBytes(SudokuBoard.MIN_BOX_SIZE);
+    private static final int MAX_BODY = 1 + 2 * GridCodec.gridBytes(SudokuBoard.MAX_BOX_SIZE);
+
+    private final Path indexPath;
+    private final FileChannel log;
+    private final FileLock lock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long recovered;
+    private MappedByteBuffer index;
+    private int capacity;
+    private long count;
+    private long logLength;
+    private boolean closed;
+
+    /** Opens the store at file, creating it if needed and recovering it after a crash. */
+    public SolutionStore(Path file) throws IOException {
+        this.indexPath = file.resolveSibling(file.getFileName() + ".idx");
+        this.log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.lock = log.tryLock();
+            if (lock == null) throw new IOException(file + " is already open in another process");
+            long size = log.size();
+            long from = openIndex(size);
+            if (from < 0) {
+                index = createIndex(indexPath, INITIAL_CAPACITY);
+                capacity = INITIAL_CAPACITY;
+                count = 0;
+                from = 0;
+            }
+            this.recovered = recover(from, size);
+            index.putInt(CLEAN_OFFSET, 0);
+            index.force();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    /** The stored solution of puzzle, or null if there is none. */
+    public synchronized SudokuBoard get(SudokuBoard puzzle) {
+        ensureOpen();
+        byte[] key = key(puzzle);
+        byte[] body = find(key, hash(key));
+        if (body == null) return null;
+        return GridCodec.decodeFill(puzzle, body, key.length);
+    }
+
+    /**
+     * Appends solution as the answer for puzzle. Does nothing if puzzle is
+     * already stored: records are never rewritten.
+     */
+    public synchronized void put(SudokuBoard puzzle, SudokuBoard solution) {
+        ensureOpen();
+        if (!puzzle.sameShape(solution)) throw new IllegalArgumentException("Solution does not match the puzzle's size");
+        if (solution.emptyCells() != 0) throw new IllegalArgumentException("Solution has blank cells");
+        byte[] key = key(puzzle);
+        long hash = hash(key);
+        if (find(key, hash) != null) return;
+        byte[] fill = GridCodec.encodeFill(puzzle, solution);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + key.length + fill.length);
+        record.putInt(key.length + fill.length).putInt(0).put(key).put(fill);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER, key.length + fill.length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        try {
+            long position = logLength;
+            while (record.hasRemaining()) position += log.write(record, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (count + 1 > capacity / 4 * 3) grow();
+        insert(hash, logLength);
+        logLength += record.limit();
+        index.putLong(COUNT_OFFSET, count);
+        index.putLong(INDEXED_OFFSET, logLength);
+    }
+
+    /**
+     * Returns the stored solution of puzzle, or else solves it with solver and
+     * stores the result. Returns null if solver does; nothing is stored then.
+     */
+    @Override
+    public SudokuBoard solve(SudokuBoard puzzle, Function<SudokuBoard, SudokuBoard> solver) {
+        SudokuBoard stored = get(puzzle);
+        if (stored != null) {
+            hits.increment();
+            return stored;
+        }
+        misses.increment();
+        SudokuBoard solution = solver.apply(puzzle);
+        if (solution != null) put(puzzle, solution);
+        return solution;
+    }
+
+    /** Writes appended records and the index to the device. */
+    public synchronized void sync() {
+        ensureOpen();
+        try {
+            log.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.force();
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    /** Bytes of records in the store file. */
+    public synchronized long bytes() {
+        return logLength;
+    }
+
+    /** Bytes of a torn or corrupt tail cut off when this store was opened. */
+    public long recoveredBytes() {
+        return recovered;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            log.force(false);
+            index.force();
+            index.putInt(CLEAN_OFFSET, 1);
+            index.force();
+            lock.release();
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("store: %d hits, %d misses, %d solutions in %d bytes", hits(), misses(), count, logLength);
+    }
+
+    /**
+     * Maps the existing index if it was closed cleanly and covers no more than
+     * the store file holds. Returns the file offset it covers, or -1 if it has
+     * to be rebuilt.
+     */
+    private long openIndex(long logSize) throws IOException {
+        if (!Files.exists(indexPath) || Files.size(indexPath) < HEADER) return -1;
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading
+            }
+            int slots = header.getInt(CAPACITY_OFFSET);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION || header.getInt(CLEAN_OFFSET) != 1
+                    || slots < INITIAL_CAPACITY || slots > MAX_CAPACITY || Integer.bitCount(slots) != 1
+                    || channel.size() != HEADER + (long) slots * SLOT
+                    || header.getLong(INDEXED_OFFSET) > logSize) {
+                return -1;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        index = mapped;
+        capacity = index.getInt(CAPACITY_OFFSET);
+        count = index.getLong(COUNT_OFFSET);
+        return index.getLong(INDEXED_OFFSET);
+    }
+
+    private static MappedByteBuffer createIndex(Path path, int slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) slots * SLOT);
+            mapped.putLong(0, MAGIC);
+            mapped.putInt(8, VERSION);
+            mapped.putInt(CAPACITY_OFFSET, slots);
+            return mapped;
+        }
+    }
+
+    /**
+     * Indexes the records from offset from on, stopping at the first torn or
+     * corrupt one and cutting the file off there. Returns the bytes cut off.
+     */
+    private long recover(long from, long size) throws IOException {
+        long position = from;
+        while (position < size) {
+            byte[] body = readRecord(position);
+            if (body == null) break;
+            if (count + 1 > capacity / 4 * 3) grow();
+            insert(hash(body, 1 + GridCodec.gridBytes(body[0])), position);
+            position += RECORD_HEADER + body.length;
+        }
+        if (position < size) log.truncate(position);
+        logLength = position;
+        index.putLong(COUNT_OFFSET, count);
+        index.putLong(INDEXED_OFFSET, logLength);
+        return size - position;
+    }
+
+    /** The body of the record at position, or null if it is incomplete or fails its checks. */
+    private byte[] readRecord(long position) {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        if (!readFully(header, position)) return null;
+        int length = header.getInt(0);
+        if (length < MIN_BODY || length > MAX_BODY) return null;
+        ByteBuffer body = ByteBuffer.allocate(length);
+        if (!readFully(body, position + RECORD_HEADER)) return null;
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, length);
+        if ((int) crc.getValue() != header.getInt(4)) return null;
+        int boxSize = body.get(0);
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE
+                || length < 1 + GridCodec.gridBytes(boxSize)) {
+            return null;
+        }
+        return body.array();
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                int read = log.read(buffer, position + buffer.position());
+                if (read < 0) return false;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The body of the record stored for key, or null. */
+    private byte[] find(byte[] key, long hash) {
+        int mask = capacity - 1;
+        for (int slot = slotOf(hash, mask); ; slot = slot + 1 & mask) {
+            long offset = HEADER + (long) slot * SLOT;
+            long stored = index.getLong((int) offset + 8);
+            if (stored == 0) return null;
+            if (index.getLong((int) offset) != hash) continue;
+            byte[] body = readRecord(stored - 1);
+            if (body != null && startsWith(body, key)) return body;
+        }
+    }
+
+    /** Adds a record offset; the slot keeps offset + 1 so that 0 marks an empty one. */
+    private void insert(long hash, long position) {
+        insert(index, capacity, hash, position + 1);
+        count++;
+    }
+
+    private static void insert(MappedByteBuffer table, int slots, long hash, long stored) {
+        int mask = slots - 1;
+        int slot = slotOf(hash, mask);
+        while (table.getLong(HEADER + slot * SLOT + 8) != 0) slot = slot + 1 & mask;
+        table.putLong(HEADER + slot * SLOT, hash);
+        table.putLong(HEADER + slot * SLOT + 8, stored);
+    }
+
+    /** Doubles the index into a new file and swaps it in. */
+    private void grow() {
+        if (capacity == MAX_CAPACITY) throw new IllegalStateException("Solution store index is full");
+        int slots = capacity * 2;
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try {
+            MappedByteBuffer grown = createIndex(temp, slots);
+            for (int slot = 0; slot < capacity; slot++) {
+                long stored = index.getLong(HEADER + slot * SLOT + 8);
+                if (stored != 0) insert(grown, slots, index.getLong(HEADER + slot * SLOT), stored);
+            }
+            grown.putLong(COUNT_OFFSET, count);
+            grown.putLong(INDEXED_OFFSET, logLength);
+            grown.force();
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index = grown;
+            capacity = slots;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Solution store is closed");
+    }
+
+    /** Box size followed by the packed puzzle. */
+    private static byte[] key(SudokuBoard puzzle) {
+        byte[] grid = GridCodec.encodeGrid(puzzle);
+        byte[] key = new byte[1 + grid.length];
+        key[0] = (byte) puzzle.boxSize();
+        System.arraycopy(grid, 0, key, 1, grid.length);
+        return key;
+    }
+
+    private static long hash(byte[] key) {
+        return hash(key, key.length);
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(byte[] data, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (data[i] & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int slotOf(long hash, int mask) {
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private static boolean startsWith(byte[] body, byte[] key) {
+        if (body.length < key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (body[i] != key[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sudoku;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A parallel solve running in the background, returned by ParallelSudokuSolver.submit.
+ */
+public class SolveHandle {
+    private final ForkJoinTask<SudokuBoard> task;
+    private final CancellationToken token;
+
+    SolveHandle(ForkJoinTask<SudokuBoard> task, CancellationToken token) {
+        this.task = task;
+        this.token = token;
+    }
+
+    /** Asks every task of this solve to stop; await() then returns null unless a solution was already found. */
+    public void cancel() {
+        token.cancel();
+    }
+
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /** Waits for the solve and returns the solution, or null if there is none or it was cancelled. */
+    public SudokuBoard await() {
+        return task.join();
+    }
+
+    /**
+     * Like await(), but cancels the solve and throws TimeoutException if it
+     * has not finished within the timeout.
+     */
+    public SudokuBoard await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return task.get(timeout, unit);
+        } catch (TimeoutException e) {
+            token.cancel();
+            throw e;
+        } catch (InterruptedException e) {
+            token.cancel();
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel solve failed", e.getCause());
+        }
+    }
+}
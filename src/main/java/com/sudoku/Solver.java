@@ -0,0 +1,32 @@
+package com.sudoku;
+
+import java.util.function.Consumer;
+
+/**
+ * A solving engine. Implementations never modify the board they are given
+ * and return fresh boards for every solution.
+ */
+public interface Solver {
+    String name();
+
+    /** Returns a solution, or null if the puzzle has none. */
+    SudokuBoard solve(SudokuBoard board);
+
+    /** Returns the solution at index in the engine's enumeration order, or null if there are fewer. */
+    SudokuBoard solveNth(SudokuBoard board, long index);
+
+    /** Counts solutions, stopping once limit is reached. */
+    long countSolutions(SudokuBoard board, long limit);
+
+    /** True if the puzzle has exactly one solution. */
+    default boolean isUnique(SudokuBoard board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    /** Passes up to limit solutions to consumer and returns how many were produced. */
+    long enumerate(SudokuBoard board, long limit, Consumer<SudokuBoard> consumer);
+
+    /** Stops every solve currently running on this engine; engines that can't be cancelled ignore it. */
+    default void cancel() {
+    }
+}
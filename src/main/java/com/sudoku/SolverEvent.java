@@ -0,0 +1,61 @@
+package com.sudoku;
+
+/**
+ * Primitive event kinds passed to SudokuObserver.onEvent. Every event is
+ * (kind, position, value), where position packs the row and column so it
+ * means the same on any board size; solvers report progress without building
+ * strings and describe() formats one on demand.
+ */
+public final class SolverEvent {
+    /** A cell changed; value 0 clears it. */
+    public static final int CELL = 0;
+    /** Fork/Join forked a task for value at position. */
+    public static final int FORK = 1;
+    /** A worker placed value at the cell it searches sequentially. */
+    public static final int WORKER = 2;
+    /** A worker reverted its cell. */
+    public static final int BACKTRACK = 3;
+    /** value placed at position deeper in a sequential search. */
+    public static final int REC = 4;
+    /** The cell at position reverted deeper in a sequential search. */
+    public static final int REC_BACK = 5;
+    /** value branches at position were handed back to the pool. */
+    public static final int SPLIT = 6;
+
+    private SolverEvent() {
+    }
+
+    /** The packed position of (row, col). */
+    public static int position(int row, int col) {
+        return row << 8 | col;
+    }
+
+    /** The packed position of a row-major cell index on a board with the given side. */
+    public static int positionOf(int cell, int size) {
+        return position(cell / size, cell % size);
+    }
+
+    public static int row(int position) {
+        return position >>> 8;
+    }
+
+    public static int col(int position) {
+        return position & 0xFF;
+    }
+
+    /** The log line for a trace event, as the solvers used to print it. */
+    public static String describe(String thread, int kind, int position, int value) {
+        int row = row(position);
+        int col = col(position);
+        switch (kind) {
+            case CELL: return "[" + thread + "] CELL: " + value + " at (" + row + ", " + col + ")";
+            case FORK: return "[" + thread + "] FORK: Task Value " + value + " at (" + row + ", " + col + ")";
+            case WORKER: return "[" + thread + "] WORKER: Placing " + value + " at (" + row + ", " + col + ")";
+            case BACKTRACK: return "[" + thread + "] BACKTRACK: Reverting (" + row + ", " + col + ")";
+            case REC: return "[" + thread + "] REC: " + value + " at (" + row + ", " + col + ")";
+            case REC_BACK: return "[" + thread + "] REC-BACK: Reverting (" + row + ", " + col + ")";
+            case SPLIT: return "[" + thread + "] SPLIT: Returning " + value + " branches at (" + row + ", " + col + ") to the pool";
+            default: return "[" + thread + "] EVENT " + kind + ": " + value + " at (" + row + ", " + col + ")";
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.sudoku;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observer that buffers solver events instead of handling them. Every solver
+ * thread writes (kind, position, value) into its own lock-free ring of longs;
+ * a single consumer, such as a UI timer or a logger, calls drain() now and
+ * then to replay the batch to a real observer, which is where strings get
+ * formatted. A full ring drops new trace events rather than stall the solver.
+ * Cell updates never go through the ring: each thread keeps the latest value
+ * of every cell it changed since the last drain, so a busy solver coalesces
+ * them instead of losing any, and the consumer always ends up with the
+ * thread's current digits.
+ */
+public class SolverEvents implements SudokuObserver {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_SIDE = SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE;
+
+    private final int capacity;
+    private final int sampleEvery;
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Ring> local = ThreadLocal.withInitial(this::newRing);
+    // Preformatted messages from callers that still use onLog
+    private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+
+    public SolverEvents() {
+        this(DEFAULT_CAPACITY, 1);
+    }
+
+    /**
+     * @param capacityPerThread ring size per solver thread, rounded up to a power of two
+     * @param sampleEvery keep one in this many trace events per thread; cell updates are never sampled
+     */
+    public SolverEvents(int capacityPerThread, int sampleEvery) {
+        if (capacityPerThread <= 0) throw new IllegalArgumentException("capacityPerThread must be positive");
+        if (sampleEvery <= 0) throw new IllegalArgumentException("sampleEvery must be positive");
+        int size = 1;
+        while (size < capacityPerThread) size <<= 1;
+        this.capacity = size;
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public void onEvent(int kind, int position, int value) {
+        Ring ring = local.get();
+        if (kind == SolverEvent.CELL) {
+            ring.setCell(position, value);
+            return;
+        }
+        if (sampleEvery > 1 && ++ring.sampled % sampleEvery != 0) return;
+        ring.offer(((long) kind << 48) | ((long) position << 32) | (value & 0xFFFFFFFFL));
+    }
+
+    @Override
+    public void onCellUpdate(int row, int col, int value) {
+        onEvent(SolverEvent.CELL, SolverEvent.position(row, col), value);
+    }
+
+    @Override
+    public void onLog(String message) {
+        messages.add(message);
+    }
+
+    /**
+     * Replays everything buffered so far to target and returns the number of
+     * events delivered. Trace events from one thread keep their order, followed
+     * by one update per cell the thread changed since the last drain, carrying
+     * its latest value. Threads are delivered one batch at a time.
+     * Only one thread may drain at a time.
+     */
+    public int drain(SudokuObserver target) {
+        int delivered = 0;
+        for (Ring ring : rings) {
+            delivered += ring.drainTo(target);
+        }
+        for (String message; (message = messages.poll()) != null; delivered++) {
+            target.onLog(message);
+        }
+        return delivered;
+    }
+
+    /** Trace events lost to full rings since this buffer was created; cell updates are never lost. */
+    public long dropped() {
+        long dropped = 0;
+        for (Ring ring : rings) dropped += ring.dropped.get();
+        return dropped;
+    }
+
+    private Ring newRing() {
+        Ring ring = new Ring(Thread.currentThread().getName(), capacity);
+        rings.add(ring);
+        return ring;
+    }
+
+    /** Single-producer, single-consumer ring owned by one solver thread, plus its changed cells. */
+    private static final class Ring {
+        private final String thread;
+        private final long[] slots;
+        private final int mask;
+        // Latest value + 1 of each cell changed since the last drain, 0 if unchanged; row * MAX_SIDE + col
+        private final AtomicIntegerArray cells = new AtomicIntegerArray(MAX_SIDE * MAX_SIDE);
+        // Next slot to write; only the owning thread advances it
+        private final AtomicLong head = new AtomicLong();
+        // Next slot to read; only the draining thread advances it
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private int sampled;
+
+        Ring(String thread, int capacity) {
+            this.thread = thread;
+            this.slots = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void offer(long event) {
+            long h = head.getPlain();
+            if (h - tail.getAcquire() == slots.length) {
+                dropped.setRelease(dropped.getPlain() + 1);
+                return;
+            }
+            slots[(int) h & mask] = event;
+            head.setRelease(h + 1);
+        }
+
+        void setCell(int position, int value) {
+            cells.setRelease(SolverEvent.row(position) * MAX_SIDE + SolverEvent.col(position), value + 1);
+        }
+
+        int drainTo(SudokuObserver target) {
+            long t = tail.getPlain();
+            long h = head.getAcquire();
+            for (long i = t; i < h; i++) {
+                long event = slots[(int) i & mask];
+                int kind = (int) (event >>> 48);
+                int position = (int) (event >>> 32) & 0xFFFF;
+                target.onLog(SolverEvent.describe(thread, kind, position, (int) event));
+            }
+            tail.setRelease(h);
+            int delivered = (int) (h - t);
+            for (int i = 0; i < cells.length(); i++) {
+                if (cells.getAcquire(i) == 0) continue;
+                // Cleared before delivery: a newer value set meanwhile stays marked for the next drain
+                int latest = cells.getAndSet(i, 0);
+                target.onCellUpdate(i / MAX_SIDE, i % MAX_SIDE, latest - 1);
+                delivered++;
+            }
+            return delivered;
+        }
+    }
+}
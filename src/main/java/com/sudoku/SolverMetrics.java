@@ -0,0 +1,179 @@
+package com.sudoku;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Search counters and latencies of one engine, summed over every thread and
+ * solve: nodes visited, backtracks, candidate digits tried, Fork/Join forks
+ * and steals, the deepest branching level, a histogram of solve latencies and
+ * the time to the first solution. Searches count into plain fields of their
+ * own and add them here once per search or task, so metrics can stay on in
+ * production. forEngine() hands out one instance per engine name and
+ * publishes it over JMX; turn metrics on with SolverOptions.withMetrics or
+ * SolverRegistry.createMetered.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+    private static final Map<String, SolverMetrics> ENGINES = new ConcurrentHashMap<>();
+
+    private final String engine;
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder candidateChecks = new LongAdder();
+    private final LongAdder forks = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram firstSolution = new LatencyHistogram();
+
+    /** Unregistered metrics, e.g. for a benchmark or a single job. */
+    public SolverMetrics(String engine) {
+        this.engine = engine;
+    }
+
+    /** The shared metrics of the named engine, registered with the platform MBean server on first use. */
+    public static SolverMetrics forEngine(String engine) {
+        return ENGINES.computeIfAbsent(engine, name -> {
+            SolverMetrics metrics = new SolverMetrics(name);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName(name));
+            } catch (InstanceAlreadyExistsException e) {
+                // Another class loader published this engine first; count locally
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register metrics for engine '" + name + "'", e);
+            }
+            return metrics;
+        });
+    }
+
+    public static ObjectName objectName(String engine) {
+        try {
+            return new ObjectName("com.sudoku:type=SolverMetrics,engine=" + ObjectName.quote(engine));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Bad engine name '" + engine + "'", e);
+        }
+    }
+
+    void add(SearchCounters counters) {
+        if (counters.nodes != 0) nodes.add(counters.nodes);
+        if (counters.backtracks != 0) backtracks.add(counters.backtracks);
+        if (counters.candidateChecks != 0) candidateChecks.add(counters.candidateChecks);
+        if (counters.forks != 0) forks.add(counters.forks);
+        if (counters.steals != 0) steals.add(counters.steals);
+        if (counters.maxDepth > maxDepth.get()) maxDepth.accumulate(counters.maxDepth);
+    }
+
+    /** Records one solve call that took nanos. */
+    public void recordSolve(long nanos) {
+        latency.record(nanos);
+    }
+
+    /** Records the time from the start of a search to its first solution. */
+    public void recordFirstSolution(long nanos) {
+        firstSolution.record(nanos);
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public LatencyHistogram firstSolution() {
+        return firstSolution;
+    }
+
+    @Override
+    public String getEngine() {
+        return engine;
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getCandidateChecks() {
+        return candidateChecks.sum();
+    }
+
+    @Override
+    public long getForks() {
+        return forks.sum();
+    }
+
+    @Override
+    public long getSteals() {
+        return steals.sum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public long getSolves() {
+        return latency.count();
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        return latency.meanNanos() / 1e3;
+    }
+
+    @Override
+    public double getLatencyP50Micros() {
+        return latency.percentileNanos(0.5) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP99Micros() {
+        return latency.percentileNanos(0.99) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP999Micros() {
+        return latency.percentileNanos(0.999) / 1e3;
+    }
+
+    @Override
+    public double getMaxLatencyMicros() {
+        return latency.maxNanos() / 1e3;
+    }
+
+    @Override
+    public double getMeanTimeToFirstSolutionMicros() {
+        return firstSolution.meanNanos() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        nodes.reset();
+        backtracks.reset();
+        candidateChecks.reset();
+        forks.reset();
+        steals.reset();
+        maxDepth.reset();
+        latency.reset();
+        firstSolution.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d nodes, %d backtracks, %d candidate checks, %d forks, %d steals, "
+                        + "max depth %d%n  latency: %s%n  first solution: %s",
+                engine, getNodes(), getBacktracks(), getCandidateChecks(), getForks(), getSteals(), getMaxDepth(),
+                latency, firstSolution);
+    }
+}
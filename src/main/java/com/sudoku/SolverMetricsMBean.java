@@ -0,0 +1,37 @@
+package com.sudoku;
+
+/**
+ * JMX view of one engine's SolverMetrics, registered as
+ * com.sudoku:type=SolverMetrics,engine=&lt;name&gt;. Times are in microseconds.
+ */
+public interface SolverMetricsMBean {
+    String getEngine();
+
+    long getNodes();
+
+    long getBacktracks();
+
+    long getCandidateChecks();
+
+    long getForks();
+
+    long getSteals();
+
+    long getMaxDepth();
+
+    long getSolves();
+
+    double getMeanLatencyMicros();
+
+    double getLatencyP50Micros();
+
+    double getLatencyP99Micros();
+
+    double getLatencyP999Micros();
+
+    double getMaxLatencyMicros();
+
+    double getMeanTimeToFirstSolutionMicros();
+
+    void reset();
+}
@@ -0,0 +1,69 @@
+package com.sudoku;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable search settings shared by the solvers. Start from DEFAULT and
+ * derive variants with the with* methods.
+ */
+public class SolverOptions {
+    public static final SolverOptions DEFAULT =
+            new SolverOptions(BranchingHeuristic.MRV, ConstraintPropagator.ALL_RULES, ComplexitySimulator.NONE, null);
+
+    private final BranchingHeuristic heuristic;
+    private final Set<ConstraintPropagator.Rule> propagation;
+    private final ComplexitySimulator load;
+    private final SolverMetrics metrics;
+
+    private SolverOptions(BranchingHeuristic heuristic, Set<ConstraintPropagator.Rule> propagation,
+                          ComplexitySimulator load, SolverMetrics metrics) {
+        this.heuristic = heuristic;
+        this.load = load;
+        this.metrics = metrics;
+        this.propagation = propagation.isEmpty()
+                ? ConstraintPropagator.NO_RULES
+                : Collections.unmodifiableSet(EnumSet.copyOf(propagation));
+    }
+
+    public BranchingHeuristic heuristic() {
+        return heuristic;
+    }
+
+    public Set<ConstraintPropagator.Rule> propagation() {
+        return propagation;
+    }
+
+    /** Artificial load charged per tried digit; ComplexitySimulator.NONE unless set. */
+    public ComplexitySimulator load() {
+        return load;
+    }
+
+    /** Where searches add their counters; null, the default, turns counting off. */
+    public SolverMetrics metrics() {
+        return metrics;
+    }
+
+    public SolverOptions withHeuristic(BranchingHeuristic heuristic) {
+        return new SolverOptions(heuristic, propagation, load, metrics);
+    }
+
+    /** Enables exactly the given rules; an empty set turns propagation off. */
+    public SolverOptions withPropagation(Set<ConstraintPropagator.Rule> rules) {
+        return new SolverOptions(heuristic, rules, load, metrics);
+    }
+
+    public SolverOptions withLoad(ComplexitySimulator load) {
+        return new SolverOptions(heuristic, propagation, Objects.requireNonNull(load, "load"), metrics);
+    }
+
+    public SolverOptions withMetrics(SolverMetrics metrics) {
+        return new SolverOptions(heuristic, propagation, load, metrics);
+    }
+
+    public ConstraintPropagator newPropagator(SudokuBoard board, PropagationStats stats) {
+        return new ConstraintPropagator(board, propagation, stats);
+    }
+}
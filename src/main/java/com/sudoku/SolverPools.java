@@ -0,0 +1,41 @@
+package com.sudoku;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Named, isolated pools so each tenant or request class gets its own bounded
+ * set of workers and one pathological puzzle cannot starve the others.
+ */
+public class SolverPools {
+    private static final Map<String, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /** Creates the pool for name, shutting down any pool previously registered under it. */
+    public static ForkJoinPool register(String name, PoolConfig config) {
+        ForkJoinPool pool = config.newPool();
+        ForkJoinPool previous = POOLS.put(name, pool);
+        if (previous != null) previous.shutdown();
+        return pool;
+    }
+
+    /** Returns the pool registered under name, creating it from config on first use. */
+    public static ForkJoinPool getOrCreate(String name, PoolConfig config) {
+        return POOLS.computeIfAbsent(name, n -> config.newPool());
+    }
+
+    public static ForkJoinPool get(String name) {
+        ForkJoinPool pool = POOLS.get(name);
+        if (pool == null) throw new IllegalArgumentException("No solver pool registered as '" + name + "'");
+        return pool;
+    }
+
+    public static void shutdown(String name) {
+        ForkJoinPool pool = POOLS.remove(name);
+        if (pool != null) pool.shutdown();
+    }
+
+    public static void shutdownAll() {
+        for (String name : POOLS.keySet()) shutdown(name);
+    }
+}
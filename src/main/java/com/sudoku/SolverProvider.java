@@ -0,0 +1,13 @@
+package com.sudoku;
+
+/**
+ * Service-provider hook for solver engines. Implementations listed in
+ * META-INF/services/com.sudoku.SolverProvider are picked up by SolverRegistry.
+ */
+public interface SolverProvider {
+    /** Unique, case-insensitive engine name used to look the engine up. */
+    String name();
+
+    /** Creates an engine; observer may be null. */
+    Solver create(SolverOptions options, SudokuObserver observer);
+}
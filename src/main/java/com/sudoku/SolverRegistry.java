@@ -0,0 +1,92 @@
+package com.sudoku;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.BiFunction;
+
+/**
+ * Looks solver engines up by name. The built-in engines are always present;
+ * further engines can be added with register() or through ServiceLoader.
+ */
+public class SolverRegistry {
+    /** System property naming the engine used by createDefault(). */
+    public static final String ENGINE_PROPERTY = "sudoku.engine";
+    public static final String DEFAULT_ENGINE = "forkjoin";
+
+    private static final Map<String, SolverProvider> PROVIDERS = new LinkedHashMap<>();
+
+    static {
+        register(new BuiltIn("sequential", SequentialSolverEngine::new));
+        register(new BuiltIn("forkjoin", ForkJoinSolverEngine::new));
+        register(new BuiltIn("multi", MultiSolutionSolverEngine::new));
+        register(new BuiltIn("dlx", (options, observer) -> new DancingLinksSolverEngine(options)));
+        for (SolverProvider provider : ServiceLoader.load(SolverProvider.class)) {
+            register(provider);
+        }
+    }
+
+    public static synchronized void register(SolverProvider provider) {
+        PROVIDERS.put(key(provider.name()), provider);
+    }
+
+    public static synchronized List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (SolverProvider provider : PROVIDERS.values()) names.add(provider.name());
+        return names;
+    }
+
+    public static Solver create(String name, SolverOptions options, SudokuObserver observer) {
+        return provider(name).create(options, observer);
+    }
+
+    /**
+     * Creates the named engine with metrics on: its searches count into, and its
+     * calls are timed by, SolverMetrics.forEngine(name), which is published over JMX.
+     */
+    public static Solver createMetered(String name, SolverOptions options, SudokuObserver observer) {
+        SolverProvider provider = provider(name);
+        SolverMetrics metrics = SolverMetrics.forEngine(provider.name());
+        return new MeteredSolver(provider.create(options.withMetrics(metrics), observer), metrics);
+    }
+
+    /** Creates the engine named by the sudoku.engine system property. */
+    public static Solver createDefault(SolverOptions options, SudokuObserver observer) {
+        return create(System.getProperty(ENGINE_PROPERTY, DEFAULT_ENGINE), options, observer);
+    }
+
+    private static synchronized SolverProvider provider(String name) {
+        SolverProvider provider = PROVIDERS.get(key(name));
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown solver engine '" + name + "', available: " + names());
+        }
+        return provider;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class BuiltIn implements SolverProvider {
+        private final String name;
+        private final BiFunction<SolverOptions, SudokuObserver, Solver> factory;
+
+        BuiltIn(String name, BiFunction<SolverOptions, SudokuObserver, Solver> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Solver create(SolverOptions options, SudokuObserver observer) {
+            return factory.apply(options, observer);
+        }
+    }
+}
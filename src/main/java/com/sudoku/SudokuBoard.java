@@ -1,54 +1,200 @@
 package com.sudoku;
 
+import java.util.Arrays;
+
+/**
+ * An n² x n² grid for a box size n, from 4x4 up to 25x25. The static constants
+ * describe the standard 9x9 grid the no-argument constructor builds; code that
+ * handles any size asks the board for size(), cellCount() and allDigits().
+ */
 public class SudokuBoard {
     public static final int SIZE = 9;
     public static final int SUBGRID_SIZE = 3;
-    private int[][] board;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int ALL_DIGITS = (1 << SIZE) - 1;
+
+    public static final int MIN_BOX_SIZE = 2;
+    // Digits are int mask bits and cells are bytes, which is room for 25x25
+    public static final int MAX_BOX_SIZE = 5;
+
+    private static final BoardGeometry STANDARD = BoardGeometry.of(SUBGRID_SIZE);
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int[] boxOf;
+
+    // Row-major cell values, one byte per cell
+    private final byte[] cells;
+
+    // Occupancy masks laid out as [rows | columns | boxes]:
+    // bit (num - 1) is set when num is already placed in that unit
+    private final int[] masks;
+    private int filled;
 
     public SudokuBoard() {
-        this.board = new int[SIZE][SIZE];
+        this(STANDARD);
     }
-    
+
+    /** An empty boxSize² x boxSize² board, e.g. 4 for 16x16. */
+    public SudokuBoard(int boxSize) {
+        this(BoardGeometry.of(boxSize));
+    }
+
+    /** Takes its size from the array, which must be square with a perfect-square side. */
     public SudokuBoard(int[][] initialBoard) {
-        this.board = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(initialBoard[i], 0, this.board[i], 0, SIZE);
+        this(BoardGeometry.of(BoardGeometry.boxSizeFor(initialBoard.length)));
+        for (int i = 0; i < size; i++) {
+            if (initialBoard[i].length != size) {
+                throw new IllegalArgumentException("Row " + i + " has " + initialBoard[i].length
+                        + " cells, expected " + size);
+            }
+            for (int j = 0; j < size; j++) {
+                set(i, j, initialBoard[i][j]);
+            }
         }
     }
 
+    private SudokuBoard(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size;
+        this.boxOf = geometry.boxOf;
+        this.cells = new byte[geometry.cells];
+        this.masks = new int[3 * size];
+    }
+
+    public int boxSize() {
+        return geometry.boxSize;
+    }
+
+    /** Side length of the grid, which is also the largest digit. */
+    public int size() {
+        return size;
+    }
+
+    public int cellCount() {
+        return cells.length;
+    }
+
+    /** Mask with one bit set for every digit 1..size(). */
+    public int allDigits() {
+        return geometry.allDigits;
+    }
+
+    /** True if other has the same dimensions, so boards can be copied into each other. */
+    public boolean sameShape(SudokuBoard other) {
+        return geometry == other.geometry;
+    }
+
     public int get(int row, int col) {
-        return board[row][col];
+        return cells[row * size + col];
     }
 
     public void set(int row, int col, int value) {
-        board[row][col] = value;
+        int cell = row * size + col;
+        int box = 2 * size + boxOf[cell];
+        int old = cells[cell];
+        if (old != 0) {
+            filled--;
+            int clear = ~(1 << (old - 1));
+            masks[row] &= clear;
+            masks[size + col] &= clear;
+            masks[box] &= clear;
+        }
+        if (value != 0) {
+            filled++;
+            int bit = 1 << (value - 1);
+            masks[row] |= bit;
+            masks[size + col] |= bit;
+            masks[box] |= bit;
+        }
+        cells[cell] = (byte) value;
+    }
+
+    /**
+     * Cell-index accessor, where cell = row * size() + col.
+     */
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    public int emptyCells() {
+        return cells.length - filled;
     }
 
     public boolean isSafe(int row, int col, int num) {
-        // Check row
-        for (int d = 0; d < SIZE; d++) {
-            if (board[row][d] == num) return false;
-        }
-        // Check column
-        for (int r = 0; r < SIZE; r++) {
-            if (board[r][col] == num) return false;
+        return (used(row, col) & (1 << (num - 1))) == 0;
+    }
+
+    /**
+     * Returns the digits that can legally be placed at (row, col) as a mask,
+     * where bit (num - 1) is set for every allowed num.
+     */
+    public int candidates(int row, int col) {
+        return ~used(row, col) & geometry.allDigits;
+    }
+
+    /**
+     * Number of empty cells across the row, column and box of (row, col),
+     * used as the degree tie-break by BranchingHeuristic.MRV_DEGREE.
+     */
+    public int openDegree(int row, int col) {
+        return 3 * size - Integer.bitCount(masks[row])
+                - Integer.bitCount(masks[size + col])
+                - Integer.bitCount(masks[2 * size + boxOf[row * size + col]]);
+    }
+
+    public SudokuBoard copy() {
+        SudokuBoard board = new SudokuBoard(geometry);
+        copyInto(board);
+        return board;
+    }
+
+    /**
+     * Overwrites target, which must have the same shape, with the contents of
+     * this board without allocating.
+     */
+    public void copyInto(SudokuBoard target) {
+        if (target.geometry != geometry) {
+            throw new IllegalArgumentException("Cannot copy a " + size + "x" + size + " board into a "
+                    + target.size + "x" + target.size + " board");
         }
-        // Check subgrid
-        int boxRowStart = row - row % SUBGRID_SIZE;
-        int boxColStart = col - col % SUBGRID_SIZE;
-        for (int r = boxRowStart; r < boxRowStart + SUBGRID_SIZE; r++) {
-            for (int d = boxColStart; d < boxColStart + SUBGRID_SIZE; d++) {
-                if (board[r][d] == num) return false;
+        System.arraycopy(cells, 0, target.cells, 0, cells.length);
+        System.arraycopy(masks, 0, target.masks, 0, masks.length);
+        target.filled = filled;
+    }
+
+    /**
+     * Writes the cell values into dest (at least cellCount() bytes, row-major).
+     */
+    public void snapshot(byte[] dest) {
+        System.arraycopy(cells, 0, dest, 0, cells.length);
+    }
+
+    /**
+     * Replaces every cell with the values previously captured by snapshot().
+     */
+    public void restore(byte[] src) {
+        System.arraycopy(src, 0, cells, 0, cells.length);
+        Arrays.fill(masks, 0);
+        filled = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            int value = cells[cell];
+            if (value != 0) {
+                filled++;
+                int bit = 1 << (value - 1);
+                masks[cell / size] |= bit;
+                masks[size + cell % size] |= bit;
+                masks[2 * size + boxOf[cell]] |= bit;
             }
         }
-        return true;
     }
 
-    public SudokuBoard copy() {
-        int[][] newBoard = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(this.board[i], 0, newBoard[i], 0, SIZE);
-        }
-        return new SudokuBoard(newBoard);
+    /** Index tables for this board's shape, shared with the propagator. */
+    BoardGeometry geometry() {
+        return geometry;
+    }
+
+    private int used(int row, int col) {
+        return masks[row] | masks[size + col] | masks[2 * size + boxOf[row * size + col]];
     }
-}
\ No newline at end of file
+}
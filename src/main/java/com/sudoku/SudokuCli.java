@@ -0,0 +1,324 @@
+package com.sudoku;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import jdk.jfr.Recording;
+
+/**
+ * Headless command-line entry point for batch jobs and benchmarks.
+ * Results go to standard output (or --out), statistics to standard error.
+ * It never loads AWT or Swing classes.
+ */
+public class SudokuCli {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar sd.jar <command> [options]",
+            "",
+            "Commands:",
+            "  solve <puzzles>      Solve every puzzle in the file; unsolvable puzzles are echoed unchanged",
+            "  count <puzzles>      Print the number of solutions of every puzzle, up to --limit",
+            "  unique <puzzles>     Print unique, multiple or none for every puzzle",
+            "  generate <n>         Generate n puzzles",
+            "  report <recording>   Print worker utilization and critical paths from a solve --record file",
+            "",
+            "Options:",
+            "  --engine <name>      Solver engine: " + String.join(", ", SolverRegistry.names())
+                    + " (default: sequential, or the " + SolverRegistry.ENGINE_PROPERTY + " property)",
+            "  --threads <n>        Worker threads, and the forkjoin engine's pool size (default: available processors)",
+            "  --limit <n>          Stop counting at n solutions (default: 1000)",
+            "  --difficulty <1-3>   Puzzle difficulty for generate: 1=Easy, 2=Medium, 3=Hard (default: 2)",
+            "  --unique <yes|no>    generate only puzzles with exactly one solution, in parallel (default: no)",
+            "  --clues <n>          Clue count unique puzzles are dug down to (default: by difficulty, 36/30/24 on 9x9)",
+            "  --seed <n>           Seed for reproducible generated puzzles (default: random)",
+            "  --box <n>            Box size: 2 for 4x4, 3 for 9x9, 4 for 16x16, 5 for 25x25 (default: 3)",
+            "  --out <file>         Write results to file instead of standard output",
+            "  --cache <n>          solve: remember up to n solutions, shared across symmetric variants (default: 0, off)",
+            "  --store <file>       solve: look puzzles up in a persistent solution store and add new solutions to it",
+            "  --record <file>      solve: record Fork/Join search events (forkjoin engine) to a JFR file",
+            "  --metrics <yes|no>   Count search nodes, backtracks, forks and latencies, publish them over JMX",
+            "                       and print them to standard error at the end (default: no)",
+            "  --load <spec>        Artificial load per tried digit: none, demo, cpu:<n>, spin:<t> or sleep:<t>,",
+            "                       where t takes an ns, us or ms suffix (default: none)",
+            "",
+            "Puzzle files hold one puzzle per line: size x size cells (16, 81, 256 or 625 for --box 2-5),",
+            "digits 1 up to size with '.' or '0' for blanks. Digits above 9 are letters: A-G on 16x16, A-P on 25x25.");
+
+    // Pool the forkjoin engine solves on, sized by --threads
+    private static final String POOL_NAME = "cli";
+    private static final Set<String> KNOWN_OPTIONS = Set.of("engine", "threads", "limit", "difficulty", "out", "load",
+            "unique", "clues", "seed", "box", "cache", "store", "metrics", "record");
+
+    private final String engine;
+    private final int threads;
+    private final long limit;
+    private final int difficulty;
+    private final int boxSize;
+    private final Path out;
+    private final SolverOptions solverOptions;
+    private final boolean unique;
+    private final int clues;
+    private final long seed;
+    private final int cacheSize;
+    private final Path store;
+    private final boolean metrics;
+    private final String engineName;
+    private final Path record;
+
+    private SudokuCli(Map<String, String> options) {
+        this.engine = options.getOrDefault("engine", System.getProperty(SolverRegistry.ENGINE_PROPERTY, "sequential"));
+        this.threads = parseInt(options, "threads", Runtime.getRuntime().availableProcessors());
+        this.limit = parseInt(options, "limit", 1000);
+        this.difficulty = parseInt(options, "difficulty", 2);
+        // Checked here, before cluesFor sees it, so the message names the option
+        if (difficulty < 1 || difficulty > 3) throw new IllegalArgumentException("--difficulty must be 1, 2 or 3");
+        this.boxSize = parseInt(options, "box", SudokuBoard.SUBGRID_SIZE);
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("--box must be between " + SudokuBoard.MIN_BOX_SIZE
+                    + " and " + SudokuBoard.MAX_BOX_SIZE);
+        }
+        this.out = options.containsKey("out") ? Paths.get(options.get("out")) : null;
+        this.unique = parseYesNo(options, "unique");
+        this.metrics = parseYesNo(options, "metrics");
+        this.record = options.containsKey("record") ? Paths.get(options.get("record")) : null;
+        this.clues = parseInt(options, "clues", SudokuGenerator.cluesFor(boxSize, difficulty));
+        this.seed = options.containsKey("seed") ? parseLong(options, "seed") : new SplittableRandom().nextLong();
+        this.cacheSize = parseInt(options, "cache", 0);
+        if (cacheSize < 0) throw new IllegalArgumentException("--cache must not be negative");
+        this.store = options.containsKey("store") ? Paths.get(options.get("store")) : null;
+        this.solverOptions = SolverOptions.DEFAULT.withLoad(ComplexitySimulator.parse(options.getOrDefault("load", "none")));
+        if (threads <= 0) throw new IllegalArgumentException("--threads must be positive");
+        if (limit <= 0) throw new IllegalArgumentException("--limit must be positive");
+        int cells = boxSize * boxSize * boxSize * boxSize;
+        // 17 is the proven minimum for 9x9; other sizes are only bounded by the grid
+        int minClues = boxSize == SudokuBoard.SUBGRID_SIZE ? 17 : 1;
+        if (clues < minClues || clues > cells) {
+            throw new IllegalArgumentException("--clues must be between " + minClues + " and " + cells);
+        }
+        // Fail fast on a misspelled engine name
+        this.engineName = SolverRegistry.create(engine, solverOptions, null).name();
+    }
+
+    private Solver newSolver() {
+        if (!engineName.equals("forkjoin")) {
+            return metrics
+                    ? SolverRegistry.createMetered(engine, solverOptions, null)
+                    : SolverRegistry.create(engine, solverOptions, null);
+        }
+        // The registry's forkjoin engine uses the shared default pool; --threads sizes this one instead
+        ForkJoinPool pool = SolverPools.getOrCreate(POOL_NAME, PoolConfig.DEFAULT.withParallelism(threads));
+        if (!metrics) return new ForkJoinSolverEngine(solverOptions, null, pool);
+        SolverMetrics engineMetrics = SolverMetrics.forEngine(engineName);
+        return new MeteredSolver(new ForkJoinSolverEngine(solverOptions.withMetrics(engineMetrics), null, pool),
+                engineMetrics);
+    }
+
+    private void printMetrics() {
+        if (metrics) System.err.println(SolverMetrics.forEngine(engineName));
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        String command = args[0];
+        String argument = args[1];
+        try {
+            SudokuCli cli = new SudokuCli(parseOptions(args));
+            switch (command) {
+                case "solve": cli.solve(Paths.get(argument)); break;
+                case "count": cli.count(Paths.get(argument), false); break;
+                case "unique": cli.count(Paths.get(argument), true); break;
+                case "generate": cli.generate(Integer.parseInt(argument)); break;
+                case "report": SearchProfile.read(Paths.get(argument)).print(System.out); break;
+                default: throw new IllegalArgumentException("Unknown command '" + command + "'");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            SolverPools.shutdown(POOL_NAME);
+        }
+    }
+
+    private void solve(Path puzzles) throws IOException {
+        Recording recording = record != null ? SearchEvents.startRecording(record) : null;
+        try {
+            SolutionCache cache = cacheSize > 0 ? new SolutionCache(cacheSize) : null;
+            try (SolutionStore solutions = store != null ? new SolutionStore(store) : null;
+                 PuzzleReader reader = new PuzzleReader(puzzles, boxSize);
+                 PuzzleWriter writer = openWriter();
+                 BatchSolver batch = new BatchSolver(threads, () -> {
+                     Solver solver = newSolver();
+                     if (solutions != null) solver = new CachingSolver(solver, solutions);
+                     return cache != null ? new CachingSolver(solver, cache) : solver;
+                 })) {
+                BatchStats stats = batch.solve(reader, true,
+                        (index, puzzle, solution) -> writer.write(solution != null ? solution : puzzle));
+                System.err.println("[" + engine + ", " + threads + " threads] " + stats);
+                if (cache != null) System.err.println(cache);
+                if (solutions != null) {
+                    if (solutions.recoveredBytes() > 0) {
+                        System.err.println("store: cut off " + solutions.recoveredBytes() + " bytes of a torn record");
+                    }
+                    System.err.println(solutions);
+                }
+                printMetrics();
+            }
+        } finally {
+            if (recording != null) {
+                recording.stop();
+                recording.close();
+                System.err.println("Recorded search events to " + record);
+            }
+        }
+    }
+
+    /** Counts solutions per puzzle in parallel, printing results in input order. */
+    private void count(Path puzzles, boolean uniqueness) throws IOException {
+        long cap = uniqueness ? 2 : limit;
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(this::newSolver);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        // [puzzles processed, puzzles with at least one solution]
+        long[] processed = new long[2];
+        try (PuzzleReader reader = new PuzzleReader(puzzles, boxSize); Writer writer = openTextWriter()) {
+            pool.submit(() -> reader.stream().parallel()
+                    .mapToLong(board -> solvers.get().countSolutions(board, cap))
+                    .forEachOrdered(count -> {
+                        processed[0]++;
+                        if (count > 0) processed[1]++;
+                        writeLine(writer, uniqueness ? describeUniqueness(count) : Long.toString(count));
+                    })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        BatchStats stats = new BatchStats(processed[0], processed[1], System.nanoTime() - start);
+        System.err.println("[" + engine + ", " + threads + " threads, limit " + cap + "] " + stats);
+        printMetrics();
+    }
+
+    private void generate(int count) throws IOException {
+        long start = System.nanoTime();
+        try (PuzzleWriter writer = openWriter()) {
+            if (unique) {
+                generateUnique(count, writer);
+            } else {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < count; i++) {
+                    writer.write(SudokuGenerator.generate(boxSize, difficulty, random));
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.err.printf("Generated %d puzzles in %.1f ms%s%n", count, elapsed / 1_000_000.0,
+                unique ? " [unique, " + clues + " clues, " + threads + " threads, seed " + seed + "]"
+                        : " [seed " + seed + "]");
+    }
+
+    /** Digs unique puzzles on all threads, writing them in stream order. */
+    private void generateUnique(int count, PuzzleWriter writer) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> SudokuGenerator.uniqueStream(boxSize, clues, seed).parallel().limit(count)
+                    .forEachOrdered(writer::write)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PuzzleWriter openWriter() throws IOException {
+        return out != null ? new PuzzleWriter(out) : new PuzzleWriter(Channels.newChannel(System.out));
+    }
+
+    private Writer openTextWriter() throws IOException {
+        return out != null
+                ? Files.newBufferedWriter(out, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String describeUniqueness(long count) {
+        return count == 0 ? "none" : count == 1 ? "unique" : "multiple";
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 2; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value but found '" + args[i] + "'");
+            }
+            String name = args[i].substring(2);
+            if (!KNOWN_OPTIONS.contains(name)) throw new IllegalArgumentException("Unknown option '" + args[i] + "'");
+            options.put(name, args[i + 1]);
+        }
+        return options;
+    }
+
+    private static boolean parseYesNo(Map<String, String> options, String name) {
+        String value = options.getOrDefault(name, "no");
+        if (value.equals("yes")) return true;
+        if (value.equals("no")) return false;
+        throw new IllegalArgumentException("--" + name + " expects yes or no but got '" + value + "'");
+    }
+
+    private static long parseLong(Map<String, String> options, String name) {
+        String value = options.get(name);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " expects a number but got '" + value + "'");
+        }
+    }
+
+    private static int parseInt(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " expects a number but got '" + value + "'");
+        }
+    }
+}
@@ -1,17 +1,45 @@
 package com.sudoku;
 
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultCaret;
 import java.awt.*;
-import java.util.List;
+import java.util.ArrayDeque;
 import java.util.concurrent.ExecutionException;
 
 public class SudokuGUI extends JFrame {
-
-    private final JTextField[][] cells = new JTextField[SudokuBoard.SIZE][SudokuBoard.SIZE];
+    // Solver events are replayed onto the grid and log at most this often (about 30 fps)
+    private static final int FRAME_INTERVAL_MS = 33;
+    // The log pane keeps only the newest lines
+    private static final int MAX_LOG_LINES = 500;
+    // Solutions counted after a solve to tell the user how many there are
+    private static final int SOLUTION_COUNT_LIMIT = 10;
+    // The demo load keeps the sequential/parallel timing comparison visible
+    private static final SolverOptions DEMO_OPTIONS = SolverOptions.DEFAULT.withLoad(ComplexitySimulator.DEMO);
+
+    private static final Font CELL_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Color GIVEN_BACKGROUND = new Color(221, 160, 221);
+    private static final Color OPEN_BACKGROUND = new Color(255, 192, 203);
+    private static final Color SOLVED_FOREGROUND = new Color(139, 0, 139);
+    private static final Color GRID_BACKGROUND = new Color(240, 240, 255);
+    private static final Color PANEL_BACKGROUND = new Color(230, 230, 240);
+    private static final Color SPEED_UP_COLOR = new Color(0, 100, 0);
+    private static final String[] DIGIT_TEXT = digitText();
+    private static final String[] GRID_SIZES = {"4x4", "9x9", "16x16", "25x25"};
+
+    private JTextField[][] cells;
+    private final JPanel gridPanel = new JPanel();
     private SudokuBoard currentBoard;
     private SudokuBoard initialBoard;
     private final JTextArea logArea;
+
+    // Latest value per cell from the solver and what the grid shows right now;
+    // a frame only touches the cells where the two differ
+    private int[] frame;
+    private int[] shown;
+    // Log lines waiting for the next frame, bounded like the pane itself
+    private final ArrayDeque<String> pendingLog = new ArrayDeque<>();
+    private int skippedLogLines;
     
     // Stats Labels
     private JLabel seqTimeLabel;
@@ -25,7 +53,15 @@ public class SudokuGUI extends JFrame {
     private JButton generateButton;
     private JButton nextSolutionBtn;
     private JButton clearButton;
+    private JButton cancelButton;
     private JComboBox<String> solverTypeBox;
+    private JComboBox<String> gridSizeBox;
+    private SolverWorker activeWorker;
+    // Search state behind "Simulate Next Solution", kept between clicks
+    private SolutionIterator solutionIterator;
+    // Solution the first solve showed, and whether solutionIterator has already stepped over it
+    private SudokuBoard firstSolution;
+    private boolean firstSolutionPassed;
     
     private int currentSolutionTarget = 0;
     private int totalSolutionsPossible = 0;
@@ -39,7 +75,9 @@ public class SudokuGUI extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        add(createGridPanel(), BorderLayout.CENTER);
+        gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        gridPanel.setBackground(GRID_BACKGROUND);
+        add(gridPanel, BorderLayout.CENTER);
         add(createControlPanel(), BorderLayout.EAST);
 
         logArea = new JTextArea(8, 20);
@@ -52,6 +90,7 @@ public class SudokuGUI extends JFrame {
 
         currentBoard = new SudokuBoard();
         initialBoard = currentBoard.copy();
+        buildGrid(currentBoard);
         updateGridFromBoard();
 
         pack();
@@ -59,73 +98,120 @@ public class SudokuGUI extends JFrame {
     }
 
     // --- SWING WORKER CLASS ---
-    private class SolverWorker extends SwingWorker<SudokuBoard, BoardUpdate> {
+    private class SolverWorker extends SwingWorker<SudokuBoard, Void> {
         private final boolean isSequential;
         private final int targetIndex;
         private final SudokuBoard boardToSolve;
         private final String methodName;
+        private final SolutionIterator iterator;
+        private volatile Solver solver;
+        private volatile boolean cancelRequested;
         private long startTime;
         private long endTime;
 
-        public SolverWorker(boolean isSequential, String methodName, int targetIndex, SudokuBoard board) {
+        // Solver threads only buffer events; the EDT replays them once per frame
+        private final SolverEvents events = new SolverEvents();
+        private final Timer frameTimer = new Timer(FRAME_INTERVAL_MS, e -> renderFrame());
+        private final SudokuObserver display = new SudokuObserver() {
+            @Override
+            public void onCellUpdate(int row, int col, int value) {
+                frame[row * cells.length + col] = value;
+            }
+            @Override
+            public void onLog(String message) {
+                queueLog(message);
+            }
+        };
+
+        /** Solves board from scratch, or continues iterator when it is not null. */
+        public SolverWorker(boolean isSequential, String methodName, int targetIndex, SudokuBoard board,
+                            SolutionIterator iterator) {
             this.isSequential = isSequential;
             this.methodName = methodName;
             this.targetIndex = targetIndex;
             this.boardToSolve = board;
+            this.iterator = iterator;
         }
 
         @Override
         protected SudokuBoard doInBackground() throws Exception {
             startTime = System.currentTimeMillis();
 
-            // Observer to bridge Threads -> GUI
-            SudokuObserver workerObserver = new SudokuObserver() {
-                @Override
-                public void onCellUpdate(int row, int col, int value) {
-                    publish(new BoardUpdate(row, col, value));
-                }
-                @Override
-                public void onLog(String message) {
-                    SwingUtilities.invokeLater(() -> logArea.append(message + "\n"));
-                }
-            };
-
-            SudokuBoard result = null;
-            if (isSequential) {
-                // Sequential logic (No text logs inside)
-                SequentialSudokuSolver solver = new SequentialSudokuSolver(boardToSolve, workerObserver, targetIndex);
-                if (solver.solve()) result = solver.getSolvedBoard();
+            SudokuBoard result;
+            if (iterator != null) {
+                // "Next Solution" resumes the previous search instead of enumerating from the start
+                result = nextFromIterator();
             } else {
-                if (targetIndex == 0) {
-                    // Parallel logic (Has detailed logs)
-                    result = ParallelSudokuSolver.solve(boardToSolve, workerObserver);
-                } else {
-                    // "Next Solution" usually uses sequential search to find the Nth result deterministically.
-                    // This will assume the properties of the SequentialSolver (silent log, visual only).
-                    SequentialSudokuSolver solver = new SequentialSudokuSolver(boardToSolve, workerObserver, targetIndex);
-                    if (solver.solve()) result = solver.getSolvedBoard();
-                }
+                // Sequential has no text logs; Fork/Join logs its steps
+                solver = SolverRegistry.create(isSequential ? "sequential" : "forkjoin", DEMO_OPTIONS, events);
+                if (cancelRequested) return null;
+                result = solver.solveNth(boardToSolve, targetIndex);
             }
-            
+
             endTime = System.currentTimeMillis();
             return result;
         }
 
-        @Override
-        protected void process(List<BoardUpdate> chunks) {
-            for (BoardUpdate update : chunks) {
-                cells[update.row][update.col].setText(update.value == 0 ? "" : String.valueOf(update.value));
-                cells[update.row][update.col].setForeground(new Color(139, 0, 139));
+        /**
+         * Advances the iterator to solution targetIndex as the GUI numbers them.
+         * Solution 0 is whatever the first solve showed, which with Fork/Join
+         * need not be the iterator's solution 0, so the iterator steps over it
+         * wherever it comes up. Only the search for the wanted solution is drawn.
+         */
+        private SudokuBoard nextFromIterator() {
+            try {
+                while (true) {
+                    long passed = iterator.position() - (firstSolutionPassed ? 1 : 0);
+                    iterator.setObserver(passed == targetIndex - 1 ? events : null);
+                    if (!iterator.hasNext()) return null;
+                    SudokuBoard next = iterator.next();
+                    if (!firstSolutionPassed && sameCells(next, firstSolution)) {
+                        firstSolutionPassed = true;
+                    } else if (passed + 1 == targetIndex) {
+                        return next;
+                    }
+                }
+            } finally {
+                iterator.setObserver(null);
+            }
+        }
+
+        /** Starts the solve; call on the EDT. */
+        void start() {
+            frameTimer.start();
+            execute();
+        }
+
+        /** Applies everything buffered since the last frame, drawing each changed cell once. */
+        private void renderFrame() {
+            events.drain(display);
+            int size = cells.length;
+            for (int cell = 0; cell < frame.length; cell++) {
+                if (frame[cell] != shown[cell]) {
+                    shown[cell] = frame[cell];
+                    cells[cell / size][cell % size].setText(DIGIT_TEXT[frame[cell]]);
+                }
             }
+            flushLog();
+        }
+
+        void cancelSolve() {
+            cancelRequested = true;
+            if (iterator != null) iterator.cancel();
+            Solver running = solver;
+            if (running != null) running.cancel();
         }
 
         @Override
         protected void done() {
+            frameTimer.stop();
+            renderFrame();
             try {
                 SudokuBoard result = get();
                 double duration = (endTime - startTime);
 
                 if (result != null) {
+                    if (targetIndex == 0) firstSolution = result.copy();
                     currentBoard = result;
                     isBoardSolved = true;
                     updateGridFromBoard();
@@ -141,6 +227,14 @@ public class SudokuGUI extends JFrame {
                     }
                     updateSpeedUp();
                     checkIfMoreSolutionsExist();
+                } else if (cancelRequested) {
+                    log(methodName + " cancelled after " + duration + "ms");
+                    // A cancelled iterator can't continue; the next click starts a new one
+                    if (iterator != null && iterator == solutionIterator) solutionIterator = null;
+                    currentBoard = initialBoard.copy();
+                    isBoardSolved = false;
+                    updateGridFromBoard();
+                    if (targetIndex > 0) currentSolutionTarget--;
                 } else {
                     log("No solution found.");
                     isBoardSolved = false;
@@ -149,6 +243,7 @@ public class SudokuGUI extends JFrame {
             } catch (InterruptedException | ExecutionException e) {
                 log("Error: " + e.getMessage());
             } finally {
+                activeWorker = null;
                 setControlsEnabled(true);
             }
         }
@@ -160,8 +255,22 @@ public class SudokuGUI extends JFrame {
             return;
         }
 
-        currentBoard = initialBoard.copy();
-        updateGridFromBoard();
+        SolutionIterator iterator = null;
+        if (targetIndex > 0) {
+            if (solutionIterator == null) {
+                solutionIterator = new SolutionIterator(initialBoard, DEMO_OPTIONS, null, new CancellationToken());
+                firstSolutionPassed = false;
+            }
+            iterator = solutionIterator;
+        } else {
+            solutionIterator = null;
+        }
+
+        // A resumed iterator starts from the solution on screen, so keep showing it
+        if (iterator == null || iterator.position() == 0) {
+            currentBoard = initialBoard.copy();
+            updateGridFromBoard();
+        }
         
         lastMethodUsed = methodName;
         setControlsEnabled(false);
@@ -169,18 +278,38 @@ public class SudokuGUI extends JFrame {
         String logMsg = methodName + " Simulation started...";
         log(logMsg);
 
-        SolverWorker worker = new SolverWorker(isSequential, methodName, targetIndex, currentBoard);
-        worker.execute();
+        activeWorker = new SolverWorker(isSequential, methodName, targetIndex, initialBoard.copy(), iterator);
+        activeWorker.start();
+    }
+
+    private static boolean sameCells(SudokuBoard a, SudokuBoard b) {
+        if (b == null || !a.sameShape(b)) return false;
+        for (int cell = 0; cell < a.cellCount(); cell++) {
+            if (a.get(cell) != b.get(cell)) return false;
+        }
+        return true;
     }
 
     private void checkIfMoreSolutionsExist() {
-        new Thread(() -> {
-            MultiSolutionSolver multi = new MultiSolutionSolver(initialBoard);
-            List<SudokuBoard> list = multi.findAll(10);
-            totalSolutionsPossible = list.size();
-            
-            SwingUtilities.invokeLater(() -> {
-                log("Analysis: " + totalSolutionsPossible + " total solution(s) possible.");
+        SudokuBoard puzzle = initialBoard.copy();
+        // Enough to report a few and to know whether a next solution exists
+        long limit = Math.max(SOLUTION_COUNT_LIMIT, currentSolutionTarget + 2);
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                return ParallelSudokuSolver.countSolutions(puzzle, SolverOptions.DEFAULT, limit);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    totalSolutionsPossible = (int) (long) get();
+                } catch (InterruptedException | ExecutionException e) {
+                    log("Error: " + e.getMessage());
+                    return;
+                }
+                log("Analysis: " + (totalSolutionsPossible >= limit ? "at least " : "")
+                        + totalSolutionsPossible + " total solution(s) possible.");
                 if (currentSolutionTarget + 1 < totalSolutionsPossible) {
                     nextSolutionBtn.setEnabled(true);
                     nextSolutionBtn.setText("Simulate Solution " + (currentSolutionTarget + 2));
@@ -188,8 +317,8 @@ public class SudokuGUI extends JFrame {
                     nextSolutionBtn.setEnabled(false);
                     nextSolutionBtn.setText("No More Solutions");
                 }
-            });
-        }).start();
+            }
+        }.execute();
     }
 
     private void setControlsEnabled(boolean enabled) {
@@ -197,6 +326,8 @@ public class SudokuGUI extends JFrame {
         generateButton.setEnabled(enabled);
         clearButton.setEnabled(enabled);
         solverTypeBox.setEnabled(enabled);
+        gridSizeBox.setEnabled(enabled);
+        cancelButton.setEnabled(!enabled);
     }
 
     private void resetStats() {
@@ -214,36 +345,82 @@ public class SudokuGUI extends JFrame {
             double pTime = (parallelTime == 0) ? 0.001 : parallelTime;
             double speedup = sequentialTime / pTime;
             speedUpLabel.setText(String.format("Speed-up: %.2fx", speedup));
-            if (speedup >= 1.0) speedUpLabel.setForeground(new Color(0, 100, 0));
+            if (speedup >= 1.0) speedUpLabel.setForeground(SPEED_UP_COLOR);
             else speedUpLabel.setForeground(Color.RED);
         }
     }
 
-    private JPanel createGridPanel() {
-        JPanel panel = new JPanel(new GridLayout(9, 9));
-        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        panel.setBackground(new Color(240, 240, 255));
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
+    /** Lays out one text field per cell of board, shrinking cells and font on larger grids. */
+    private void buildGrid(SudokuBoard board) {
+        int size = board.size();
+        int box = board.boxSize();
+        int pixels = size <= SudokuBoard.SIZE ? 40 : size <= 16 ? 32 : 28;
+        Font font = size <= SudokuBoard.SIZE ? CELL_FONT : CELL_FONT.deriveFont(size <= 16 ? 14f : 12f);
+        cells = new JTextField[size][size];
+        frame = new int[board.cellCount()];
+        shown = new int[board.cellCount()];
+        gridPanel.removeAll();
+        gridPanel.setLayout(new GridLayout(size, size));
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 JTextField cell = new JTextField();
                 cell.setHorizontalAlignment(JTextField.CENTER);
-                cell.setFont(new Font("Arial", Font.BOLD, 20));
-                cell.setPreferredSize(new Dimension(40, 40));
-                int top = (i % 3 == 0 && i != 0) ? 3 : 1;
-                int left = (j % 3 == 0 && j != 0) ? 3 : 1;
+                cell.setFont(font);
+                cell.setPreferredSize(new Dimension(pixels, pixels));
+                int top = (i % box == 0 && i != 0) ? 3 : 1;
+                int left = (j % box == 0 && j != 0) ? 3 : 1;
                 cell.setBorder(BorderFactory.createMatteBorder(top, left, 1, 1, Color.DARK_GRAY));
                 cells[i][j] = cell;
-                panel.add(cell);
+                gridPanel.add(cell);
             }
         }
-        return panel;
+        gridPanel.revalidate();
+    }
+
+    /** "" for an empty cell, then the digits 1 up to the largest supported grid. */
+    private static String[] digitText() {
+        int max = SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE;
+        String[] text = new String[max + 1];
+        text[0] = "";
+        for (int digit = 1; digit <= max; digit++) text[digit] = Integer.toString(digit);
+        return text;
+    }
+
+    /** The box size picked in the grid size box: 2 for 4x4 up to 5 for 25x25. */
+    private int selectedBoxSize() {
+        return gridSizeBox.getSelectedIndex() + SudokuBoard.MIN_BOX_SIZE;
+    }
+
+    /** Resets the board to an empty grid of the selected size. */
+    private void clearBoard() {
+        currentBoard = new SudokuBoard(selectedBoxSize());
+        initialBoard = currentBoard.copy();
+        isPuzzleGenerated = false;
+        isBoardSolved = false;
+        lastMethodUsed = "";
+        solutionIterator = null;
+        nextSolutionBtn.setEnabled(false);
+        if (cells.length != currentBoard.size()) {
+            buildGrid(currentBoard);
+            pack();
+        }
+        updateGridFromBoard();
+        resetStats();
+        logArea.setText("");
     }
 
     private JPanel createControlPanel() {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        panel.setBackground(new Color(230, 230, 240));
+        panel.setBackground(PANEL_BACKGROUND);
+
+        panel.add(new JLabel("Grid Size:"));
+        gridSizeBox = new JComboBox<>(GRID_SIZES);
+        gridSizeBox.setSelectedIndex(SudokuBoard.SUBGRID_SIZE - SudokuBoard.MIN_BOX_SIZE);
+        gridSizeBox.addActionListener(e -> clearBoard());
+        panel.add(gridSizeBox);
+        panel.add(Box.createVerticalStrut(10));
 
         panel.add(new JLabel("Generate Puzzle:"));
         JComboBox<String> difficultyBox = new JComboBox<>(new String[]{"Easy", "Medium", "Hard"});
@@ -253,11 +430,16 @@ public class SudokuGUI extends JFrame {
         generateButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         generateButton.addActionListener(e -> {
             int diff = difficultyBox.getSelectedIndex() + 1;
-            currentBoard = SudokuGenerator.generate(diff);
+            currentBoard = SudokuGenerator.generate(selectedBoxSize(), diff);
             initialBoard = currentBoard.copy();
+            if (cells.length != currentBoard.size()) {
+                buildGrid(currentBoard);
+                pack();
+            }
             isPuzzleGenerated = true;
             isBoardSolved = false;
             lastMethodUsed = ""; 
+            solutionIterator = null;
             nextSolutionBtn.setEnabled(false);
             currentSolutionTarget = 0;
             updateGridFromBoard();
@@ -276,6 +458,7 @@ public class SudokuGUI extends JFrame {
                 currentBoard = initialBoard.copy();
                 isBoardSolved = false; 
                 updateGridFromBoard();
+                solutionIterator = null;
                 log("Method changed. Board reset.");
             }
         });
@@ -312,6 +495,18 @@ public class SudokuGUI extends JFrame {
         panel.add(nextSolutionBtn);
         panel.add(Box.createVerticalStrut(10));
 
+        cancelButton = new JButton("Cancel");
+        cancelButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> {
+            if (activeWorker != null) {
+                activeWorker.cancelSolve();
+                log("Cancelling...");
+            }
+        });
+        panel.add(cancelButton);
+        panel.add(Box.createVerticalStrut(10));
+
         JPanel speedUpPanel = new JPanel(new GridLayout(3, 1));
         speedUpPanel.setBorder(BorderFactory.createTitledBorder("Speed-up Comparison"));
         speedUpPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 100));
@@ -327,42 +522,66 @@ public class SudokuGUI extends JFrame {
 
         clearButton = new JButton("Clear Board");
         clearButton.setAlignmentX(Component.CENTER_ALIGNMENT);
-        clearButton.addActionListener(e -> {
-            currentBoard = new SudokuBoard();
-            initialBoard = currentBoard.copy();
-            isPuzzleGenerated = false;
-            isBoardSolved = false;
-            lastMethodUsed = "";
-            nextSolutionBtn.setEnabled(false);
-            updateGridFromBoard();
-            resetStats();
-            logArea.setText("");
-        });
+        clearButton.addActionListener(e -> clearBoard());
         panel.add(clearButton);
 
         return panel;
     }
 
     private void updateGridFromBoard() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
+        int size = currentBoard.size();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 int val = currentBoard.get(i, j);
-                cells[i][j].setText(val == 0 ? "" : String.valueOf(val));
+                frame[i * size + j] = val;
+                shown[i * size + j] = val;
+                cells[i][j].setText(DIGIT_TEXT[val]);
                 boolean isInitial = (initialBoard.get(i, j) != 0);
                 cells[i][j].setEnabled(!isInitial);
                 if (isInitial) {
-                    cells[i][j].setBackground(new Color(221, 160, 221));
+                    cells[i][j].setBackground(GIVEN_BACKGROUND);
                     cells[i][j].setForeground(Color.BLACK);
                 } else {
-                    cells[i][j].setBackground(new Color(255, 192, 203));
-                    cells[i][j].setForeground(new Color(139, 0, 139));
+                    cells[i][j].setBackground(OPEN_BACKGROUND);
+                    cells[i][j].setForeground(SOLVED_FOREGROUND);
                 }
             }
         }
     }
     
     private void log(String msg) {
-        logArea.append(msg + "\n");
+        queueLog(msg);
+        flushLog();
+    }
+
+    private void queueLog(String msg) {
+        if (pendingLog.size() == MAX_LOG_LINES) {
+            pendingLog.pollFirst();
+            skippedLogLines++;
+        }
+        pendingLog.addLast(msg);
+    }
+
+    /** Appends the queued lines in one go and drops the oldest lines beyond MAX_LOG_LINES. */
+    private void flushLog() {
+        if (pendingLog.isEmpty()) return;
+        StringBuilder text = new StringBuilder();
+        if (skippedLogLines > 0) {
+            text.append("... ").append(skippedLogLines).append(" lines skipped\n");
+            skippedLogLines = 0;
+        }
+        for (String line : pendingLog) text.append(line).append('\n');
+        pendingLog.clear();
+        logArea.append(text.toString());
+
+        int excess = logArea.getLineCount() - 1 - MAX_LOG_LINES;
+        if (excess > 0) {
+            try {
+                logArea.getDocument().remove(0, logArea.getLineStartOffset(excess));
+            } catch (BadLocationException e) {
+                logArea.setText("");
+            }
+        }
         logArea.setCaretPosition(logArea.getDocument().getLength());
     }
 
@@ -1,30 +1,165 @@
 package com.sudoku;
 
-import java.util.Random;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 public class SudokuGenerator {
-    private static final Random RANDOM = new Random();
+    // Each thread draws from its own generator, split off a shared root
+    private static final SplittableRandom ROOT = new SplittableRandom();
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        synchronized (ROOT) {
+            return ROOT.split();
+        }
+    });
+    // Spreads stream indices into unrelated seeds
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    // Rules the randomized fill of larger grids propagates with; pairs cost more than they save there
+    private static final Set<ConstraintPropagator.Rule> FILL_RULES =
+            EnumSet.of(ConstraintPropagator.Rule.NAKED_SINGLE, ConstraintPropagator.Rule.HIDDEN_SINGLE);
 
+    /**
+     * Random puzzle for the given difficulty (1=Easy, 2=Medium, 3=Hard). Cells are
+     * removed without checking uniqueness, so harder puzzles often have several
+     * solutions; use generateUnique when that matters.
+     */
     public static SudokuBoard generate(int difficulty) {
-        SudokuBoard board = new SudokuBoard();
-        fillBoard(board); // Create a full solution first
+        return generate(SudokuBoard.SUBGRID_SIZE, difficulty);
+    }
+
+    /** generate for a boxSize² x boxSize² grid, removing the same share of cells as on 9x9. */
+    public static SudokuBoard generate(int boxSize, int difficulty) {
+        return generate(boxSize, difficulty, RANDOM.get());
+    }
+
+    public static SudokuBoard generate(int boxSize, int difficulty, SplittableRandom random) {
+        checkDifficulty(difficulty);
+        SudokuBoard board = new SudokuBoard(boxSize);
+        fillBoard(board, random); // Create a full solution first
         
         // Remove cells based on difficulty: 1=Easy, 2=Medium, 3=Hard
         int toRemove = (difficulty == 1) ? 30 : (difficulty == 2) ? 45 : 58;
-        removeCells(board, toRemove);
+        removeCells(board, scale(toRemove, board), random);
+        return board;
+    }
+
+    /** Target clue count used by generateUnique for a difficulty (1=Easy, 2=Medium, 3=Hard; nothing else). */
+    public static int cluesFor(int difficulty) {
+        checkDifficulty(difficulty);
+        return (difficulty == 1) ? 36 : (difficulty == 2) ? 30 : 24;
+    }
+
+    /** cluesFor scaled to a boxSize² x boxSize² grid. */
+    public static int cluesFor(int boxSize, int difficulty) {
+        return scale(cluesFor(difficulty), new SudokuBoard(boxSize));
+    }
+
+    /** generateUnique with this thread's random generator. */
+    public static SudokuBoard generateUnique(int targetClues) {
+        return generateUnique(targetClues, RANDOM.get());
+    }
+
+    public static SudokuBoard generateUnique(int targetClues, SplittableRandom random) {
+        return generateUnique(SudokuBoard.SUBGRID_SIZE, targetClues, random);
+    }
+
+    /**
+     * Puzzle with exactly one solution. Starting from a random full grid, cells
+     * are removed in random order, and a removal is kept only if the puzzle stays
+     * unique (no other digit in that cell can be completed). Stops at targetClues; if no
+     * further cell can go, the puzzle keeps more clues than the target.
+     */
+    public static SudokuBoard generateUnique(int boxSize, int targetClues, SplittableRandom random) {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        fillBoard(board, random);
+
+        int[] order = new int[board.cellCount()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        shuffleArray(order, random);
+
+        // One solver reused for every check, reloaded with reset()
+        SudokuBoard trial = new SudokuBoard(boxSize);
+        SequentialSudokuSolver solver = new SequentialSudokuSolver(new SudokuBoard(boxSize), null, 0);
+        int clues = board.cellCount();
+        for (int i = 0; i < order.length && clues > targetClues; i++) {
+            int row = order[i] / board.size();
+            int col = order[i] % board.size();
+            int value = board.get(row, col);
+            board.set(row, col, 0);
+            if (staysUnique(board, row, col, value, trial, solver)) {
+                clues--;
+            } else {
+                board.set(row, col, value);
+            }
+        }
         return board;
     }
 
-    private static boolean fillBoard(SudokuBoard board) {
-        for (int row = 0; row < SudokuBoard.SIZE; row++) {
-            for (int col = 0; col < SudokuBoard.SIZE; col++) {
+    /**
+     * The puzzle was unique with value at (row, col), so it stays unique without
+     * that clue exactly when no other digit there leads to a solution. This is
+     * the count-to-2 check without finding the known solution again.
+     */
+    private static boolean staysUnique(SudokuBoard puzzle, int row, int col, int value,
+                                       SudokuBoard trial, SequentialSudokuSolver solver) {
+        int others = puzzle.candidates(row, col) & ~(1 << (value - 1));
+        for (; others != 0; others &= others - 1) {
+            puzzle.copyInto(trial);
+            trial.set(row, col, Integer.numberOfTrailingZeros(others) + 1);
+            solver.reset(trial);
+            if (solver.solve()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Endless lazy stream of unique puzzles; the i-th puzzle depends only on seed
+     * and i, so parallel() and limit(n) give reproducible batches.
+     */
+    public static Stream<SudokuBoard> uniqueStream(int targetClues, long seed) {
+        return uniqueStream(SudokuBoard.SUBGRID_SIZE, targetClues, seed);
+    }
+
+    public static Stream<SudokuBoard> uniqueStream(int boxSize, int targetClues, long seed) {
+        return LongStream.range(0, Long.MAX_VALUE)
+                .mapToObj(i -> generateUnique(boxSize, targetClues, new SplittableRandom(seed + i * SEED_STEP)));
+    }
+
+    private static void checkDifficulty(int difficulty) {
+        if (difficulty < 1 || difficulty > 3) {
+            throw new IllegalArgumentException("difficulty must be 1, 2 or 3: " + difficulty);
+        }
+    }
+
+    /** count out of 81 cells, as the same share of this board's cells. */
+    private static int scale(int count, SudokuBoard board) {
+        return (int) Math.round((double) count * board.cellCount() / SudokuBoard.CELLS);
+    }
+
+    /** Fills an empty board with a random complete grid. */
+    static void fillBoard(SudokuBoard board, SplittableRandom random) {
+        if (board.size() == SudokuBoard.SIZE) {
+            fillRandomly(board, random);
+        } else {
+            fillByMrv(board, random);
+        }
+    }
+
+    /**
+     * Random backtracking fill. It rarely backtracks on 9x9 but can run for
+     * minutes on 25x25, so larger grids use fillByMrv instead.
+     */
+    private static boolean fillRandomly(SudokuBoard board, SplittableRandom random) {
+        for (int row = 0; row < board.size(); row++) {
+            for (int col = 0; col < board.size(); col++) {
                 if (board.get(row, col) == 0) {
-                    int[] nums = {1, 2, 3, 4, 5, 6, 7, 8, 9};
-                    shuffleArray(nums);
+                    int[] nums = shuffledDigits(board.size(), random);
                     for (int num : nums) {
                         if (board.isSafe(row, col, num)) {
                             board.set(row, col, num);
-                            if (fillBoard(board)) return true;
+                            if (fillRandomly(board, random)) return true;
                             board.set(row, col, 0); // Backtrack
                         }
                     }
@@ -35,10 +170,68 @@ public class SudokuGenerator {
         return true;
     }
 
-    private static void removeCells(SudokuBoard board, int count) {
+    /**
+     * Random fill for the larger grids: a search with naked and hidden singles
+     * that always branches on an empty cell with the fewest candidates,
+     * breaking ties and ordering digits at random, so any valid grid can come
+     * out. Most runs barely backtrack; the rare one that wanders into a dead
+     * region gives up after a node budget and starts over with fresh choices,
+     * with a doubled budget each time.
+     */
+    private static void fillByMrv(SudokuBoard board, SplittableRandom random) {
+        ConstraintPropagator propagator = new ConstraintPropagator(board, FILL_RULES, new PropagationStats());
+        for (long budget = board.cellCount(); ; budget *= 2) {
+            long[] nodesLeft = {budget};
+            if (fillByMrv(board, propagator, random, nodesLeft)) return;
+            board.restore(new byte[board.cellCount()]);
+            propagator.reset();
+        }
+    }
+
+    private static boolean fillByMrv(SudokuBoard board, ConstraintPropagator propagator, SplittableRandom random,
+                                     long[] nodesLeft) {
+        if (--nodesLeft[0] < 0) return false;
+        int best = -1;
+        int fewest = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.get(cell) != 0) continue;
+            int count = Integer.bitCount(propagator.candidates(cell));
+            if (count == 0) return false;
+            if (count < fewest) {
+                fewest = count;
+                best = cell;
+                ties = 1;
+            } else if (count == fewest && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best < 0) return true;
+
+        int candidates = propagator.candidates(best);
+        for (int num : shuffledDigits(board.size(), random)) {
+            if ((candidates & 1 << (num - 1)) == 0) continue;
+            int mark = propagator.mark();
+            propagator.place(best, num);
+            if (propagator.propagate() && fillByMrv(board, propagator, random, nodesLeft)) return true;
+            propagator.undo(mark);
+            if (nodesLeft[0] < 0) return false;
+        }
+        return false;
+    }
+
+    /** A random order of 1..size. */
+    private static int[] shuffledDigits(int size, SplittableRandom random) {
+        int[] nums = new int[size];
+        for (int i = 0; i < size; i++) nums[i] = i + 1;
+        shuffleArray(nums, random);
+        return nums;
+    }
+
+    private static void removeCells(SudokuBoard board, int count, SplittableRandom random) {
         while (count > 0) {
-            int r = RANDOM.nextInt(9);
-            int c = RANDOM.nextInt(9);
+            int r = random.nextInt(board.size());
+            int c = random.nextInt(board.size());
             if (board.get(r, c) != 0) {
                 board.set(r, c, 0);
                 count--;
@@ -46,12 +239,12 @@ public class SudokuGenerator {
         }
     }
 
-    private static void shuffleArray(int[] ar) {
+    private static void shuffleArray(int[] ar, SplittableRandom random) {
         for (int i = ar.length - 1; i > 0; i--) {
-            int index = RANDOM.nextInt(i + 1);
+            int index = random.nextInt(i + 1);
             int a = ar[index];
             ar[index] = ar[i];
             ar[i] = a;
         }
     }
-}
\ No newline at end of file
+}
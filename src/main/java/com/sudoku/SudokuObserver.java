@@ -3,4 +3,17 @@ package com.sudoku;
 public interface SudokuObserver {
     void onCellUpdate(int row, int col, int value);
     void onLog(String message);
-}
\ No newline at end of file
+
+    /**
+     * Called by the solvers for every SolverEvent. The default forwards to
+     * onCellUpdate and onLog right away, formatting on the solver thread;
+     * attach a SolverEvents buffer instead to keep solves at full speed.
+     */
+    default void onEvent(int kind, int position, int value) {
+        if (kind == SolverEvent.CELL) {
+            onCellUpdate(SolverEvent.row(position), SolverEvent.col(position), value);
+        } else {
+            onLog(SolverEvent.describe(Thread.currentThread().getName(), kind, position, value));
+        }
+    }
+}
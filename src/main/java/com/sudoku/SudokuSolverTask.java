@@ -2,130 +2,328 @@ package com.sudoku;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 
+/**
+ * Fork/Join search over one subtree. Splitting is adaptive: a task forks its
+ * branches only while the subtree is big enough and the local queue is not
+ * already backed up, otherwise it searches sequentially. A sequential search
+ * keeps watching the pool and hands half of its remaining branches back when
+ * workers go idle. While a flight recording runs, tasks emit SearchEvents.
+ */
+@SuppressWarnings("serial") // ForkJoinTask is Serializable, but tasks never leave the pool
 public class SudokuSolverTask extends RecursiveTask<SudokuBoard> {
-    private static final int THRESHOLD = 3; 
-    
+    // Subtrees with fewer empty cells than this are never split; shared by the other parallel searches
+    static final int MIN_SPLIT_EMPTY = 16;
+    // Fork only while this thread has at most this many surplus queued tasks
+    private static final int SURPLUS_LIMIT = 3;
+    // Sequential nodes visited between checks for idle workers
+    private static final int SPLIT_CHECK_INTERVAL = 32;
+
     private final SudokuBoard board;
     private final int depth;
     private final SudokuObserver observer;
+    private final SolverOptions options;
+    private final BranchingHeuristic heuristic;
+    private final PropagationStats propagationStats;
+    private final CancellationToken token;
+    private final ComplexitySimulator load;
+    private final SearchCounters counters = new SearchCounters();
+    private ConstraintPropagator propagator;
+    private int nodesSinceSplitCheck;
+    // Thread that forked this task; another thread running it means it was stolen
+    private Thread forkedBy;
+    // Flight recorder identity: ids are only handed out while a recording runs
+    private long id;
+    private long parentId;
+    private int branchPosition = -1;
+    private int branchDigit;
 
     public SudokuSolverTask(SudokuBoard board, int depth, SudokuObserver observer) {
+        this(board, depth, observer, SolverOptions.DEFAULT, new PropagationStats(), new CancellationToken());
+    }
+
+    public SudokuSolverTask(SudokuBoard board, int depth, SudokuObserver observer, SolverOptions options,
+                            PropagationStats propagationStats, CancellationToken token) {
         this.board = board;
         this.depth = depth;
         this.observer = observer;
+        this.options = options;
+        this.heuristic = options.heuristic();
+        this.propagationStats = propagationStats;
+        this.token = token;
+        this.load = options.load();
     }
 
     @Override
     protected SudokuBoard compute() {
-        int[] emptyCell = findFirstEmptyCell(board);
-        if (emptyCell == null) return board;
+        boolean stolen = forkedBy != null && forkedBy != Thread.currentThread();
+        if (stolen) counters.steals++;
+        if (id == 0) id = SearchEvents.nextId();
+        SearchEvents.Task event = new SearchEvents.Task();
+        event.begin();
+        try {
+            return search();
+        } finally {
+            if (event.isEnabled()) {
+                event.taskId = id;
+                event.parentId = parentId;
+                event.depth = depth;
+                event.position = branchPosition;
+                event.digit = branchDigit;
+                event.nodes = counters.nodes;
+                event.forks = (int) counters.forks;
+                event.stolen = stolen;
+                event.commit();
+            }
+            counters.flushTo(options.metrics());
+        }
+    }
+
+    private SudokuBoard search() {
+        if (token.isCancelled()) return token.solution();
 
-        int row = emptyCell[0];
-        int col = emptyCell[1];
-        String threadName = Thread.currentThread().getName();
+        // The parent only placed the branching digit; deduce whatever follows from it
+        propagator = options.newPropagator(board, propagationStats);
+        propagator.setObserver(observer);
+        if (!propagator.propagate()) return null;
 
-        if (depth >= THRESHOLD) {
+        counters.nodes++;
+        counters.depth(depth);
+        int emptyCell = heuristic.select(propagator);
+        if (emptyCell < 0) {
+            solutionFound(depth);
+            return token.publish(board.copy());
+        }
+
+        int row = emptyCell / board.size();
+        int col = emptyCell % board.size();
+        int candidates = propagator.candidates(emptyCell);
+
+        if (!shouldFork(board, candidates)) {
             return solveSequentially(board, row, col);
-        } else {
-            List<SudokuSolverTask> subtasks = new ArrayList<>();
-            for (int num = 1; num <= SudokuBoard.SIZE; num++) {
-                
-                ComplexitySimulator.simulate();
-
-                if (board.isSafe(row, col, num)) {
-                    SudokuBoard newBoard = board.copy();
-                    newBoard.set(row, col, num);
-
-                    if (observer != null) {
-                        // Log Parallel Forking steps
-                        observer.onLog(String.format("[%s] FORK: Task Value %d at (%d, %d)", threadName, num, row, col));
-                        observer.onCellUpdate(row, col, num);
-                    }
-
-                    SudokuSolverTask task = new SudokuSolverTask(newBoard, depth + 1, observer);
-                    task.fork();
-                    subtasks.add(task);
-                }
-            }
+        }
+
+        List<SudokuSolverTask> subtasks = new ArrayList<>();
+        int charged = 0;
+        for (int mask = candidates; mask != 0 && !token.isCancelled(); mask &= mask - 1) {
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            counters.candidateChecks++;
+
+            // One unit of load per digit up to num, illegal ones included, like the original loop
+            load.simulate(num - charged);
+            charged = num;
 
-            for (SudokuSolverTask task : subtasks) {
-                SudokuBoard result = task.join();
-                if (result != null) return result;
+            if (observer != null) {
+                // Log Parallel Forking steps
+                int position = SolverEvent.position(row, col);
+                observer.onEvent(SolverEvent.FORK, position, num);
+                observer.onEvent(SolverEvent.CELL, position, num);
             }
-            return null;
+            subtasks.add(forkBranch(board, emptyCell, num, depth + 1));
         }
+        if (!token.isCancelled()) load.simulate(board.size() - charged);
+        joinAll(subtasks);
+        return token.solution();
     }
 
     private SudokuBoard solveSequentially(SudokuBoard currentBoard, int startRow, int startCol) {
-        String threadName = Thread.currentThread().getName();
-        
-        for (int num = 1; num <= SudokuBoard.SIZE; num++) {
-            ComplexitySimulator.simulate();
-
-            if (currentBoard.isSafe(startRow, startCol, num)) {
-                
-                if (observer != null) {
-                    // Log Worker steps
-                    observer.onLog(String.format("[%s] WORKER: Placing %d at (%d, %d)", threadName, num, startRow, startCol));
-                    observer.onCellUpdate(startRow, startCol, num);
-                    try { Thread.sleep(1); } catch (InterruptedException e) {}
-                }
-                
-                SudokuBoard nextBoard = currentBoard.copy();
-                nextBoard.set(startRow, startCol, num);
-
-                if (solveRecursive(nextBoard)) return nextBoard;
-
-                // Backtrack
-                if (observer != null) {
-                    observer.onLog(String.format("[%s] BACKTRACK: Reverting (%d, %d)", threadName, startRow, startCol));
-                    observer.onCellUpdate(startRow, startCol, 0);
-                }
+        int startCell = startRow * currentBoard.size() + startCol;
+        List<SudokuSolverTask> donated = null;
+        SearchEvents.Leaf leaf = new SearchEvents.Leaf();
+        long nodesBefore = counters.nodes;
+        leaf.begin();
+
+        int charged = 0;
+        boolean solved = false;
+        for (int mask = propagator.candidates(startCell); mask != 0 && !token.isCancelled(); mask &= mask - 1) {
+            if (donated == null && shouldDonate(currentBoard, mask)) {
+                int keep = lowerHalf(mask);
+                donated = donate(currentBoard, startCell, mask & ~keep, depth + 1);
+                mask = keep;
+            }
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            counters.candidateChecks++;
+            load.simulate(num - charged);
+            charged = num;
+
+            if (observer != null) {
+                // Log Worker steps
+                observer.onEvent(SolverEvent.WORKER, SolverEvent.position(startRow, startCol), num);
             }
+
+            int mark = propagator.mark();
+            propagator.place(startCell, num);
+
+            if (propagator.propagate() && solveRecursive(currentBoard, depth + 1)) {
+                solved = true;
+                break;
+            }
+
+            // Backtrack
+            propagator.undo(mark);
+            counters.backtracks++;
+            if (observer != null) {
+                observer.onEvent(SolverEvent.BACKTRACK, SolverEvent.position(startRow, startCol), 0);
+            }
+        }
+        if (!solved && !token.isCancelled()) load.simulate(currentBoard.size() - charged);
+        if (donated != null) joinAll(donated);
+        if (leaf.isEnabled()) {
+            leaf.taskId = id;
+            leaf.depth = depth;
+            leaf.position = SolverEvent.position(startRow, startCol);
+            leaf.nodes = counters.nodes - nodesBefore;
+            leaf.commit();
         }
-        return null;
+        return token.solution();
     }
 
-    private boolean solveRecursive(SudokuBoard b) {
-        int[] next = findFirstEmptyCell(b);
-        if (next == null) return true;
-        
-        int r = next[0];
-        int c = next[1];
-        String threadName = Thread.currentThread().getName();
-
-        for (int num = 1; num <= SudokuBoard.SIZE; num++) {
-            ComplexitySimulator.simulate();
-
-            if (b.isSafe(r, c, num)) {
-                b.set(r, c, num);
-                
-                if (observer != null) {
-                     observer.onLog(String.format("[%s] REC: %d at (%d, %d)", threadName, num, r, c));
-                     observer.onCellUpdate(r, c, num);
-                }
-                
-                if (solveRecursive(b)) return true;
-                
-                b.set(r, c, 0);
-                
-                if (observer != null) {
-                     observer.onLog(String.format("[%s] REC-BACK: Reverting (%d, %d)", threadName, r, c));
-                     observer.onCellUpdate(r, c, 0);
-                }
+    private boolean solveRecursive(SudokuBoard b, int level) {
+        counters.nodes++;
+        counters.depth(level);
+        int next = heuristic.select(propagator);
+        if (next < 0) {
+            solutionFound(level);
+            // Publish right away so any branches we gave away stop too
+            token.publish(b.copy());
+            return true;
+        }
+
+        List<SudokuSolverTask> donated = null;
+        boolean solved = false;
+        int charged = 0;
+
+        for (int mask = propagator.candidates(next); mask != 0 && !token.isCancelled(); mask &= mask - 1) {
+            if (donated == null && shouldDonate(b, mask)) {
+                int keep = lowerHalf(mask);
+                donated = donate(b, next, mask & ~keep, level + 1);
+                mask = keep;
+            }
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            counters.candidateChecks++;
+            load.simulate(num - charged);
+            charged = num;
+
+            int mark = propagator.mark();
+            propagator.place(next, num);
+
+            if (observer != null) {
+                 observer.onEvent(SolverEvent.REC, SolverEvent.positionOf(next, b.size()), num);
+            }
+
+            if (propagator.propagate() && solveRecursive(b, level + 1)) {
+                solved = true;
+                break;
+            }
+
+            propagator.undo(mark);
+            counters.backtracks++;
+
+            if (observer != null) {
+                 observer.onEvent(SolverEvent.REC_BACK, SolverEvent.positionOf(next, b.size()), 0);
             }
         }
-        return false;
+        if (!solved && !token.isCancelled()) load.simulate(b.size() - charged);
+        if (donated != null) joinAll(donated);
+        return solved;
     }
 
-    private int[] findFirstEmptyCell(SudokuBoard board) {
-        for (int r = 0; r < SudokuBoard.SIZE; r++) {
-            for (int c = 0; c < SudokuBoard.SIZE; c++) {
-                if (board.get(r, c) == 0) return new int[]{r, c};
-            }
+    /**
+     * Fork a node's branches only if the subtree is big and the calling
+     * worker's queue isn't already backed up. SolutionCountTask splits by the
+     * same rule.
+     */
+    static boolean shouldFork(SudokuBoard board, int candidates) {
+        return Integer.bitCount(candidates) > 1
+                && board.emptyCells() >= MIN_SPLIT_EMPTY
+                && getSurplusQueuedTaskCount() <= SURPLUS_LIMIT;
+    }
+
+    /** Give work back once in a while when nothing is queued here and some worker is idle. */
+    private boolean shouldDonate(SudokuBoard b, int remaining) {
+        if (++nodesSinceSplitCheck < SPLIT_CHECK_INTERVAL) return false;
+        nodesSinceSplitCheck = 0;
+        if (Integer.bitCount(remaining) < 2 || b.emptyCells() < MIN_SPLIT_EMPTY) return false;
+        ForkJoinPool pool = getPool();
+        return pool != null
+                && getSurplusQueuedTaskCount() == 0
+                && pool.getActiveThreadCount() < pool.getParallelism();
+    }
+
+    private List<SudokuSolverTask> donate(SudokuBoard b, int cell, int branches, int childDepth) {
+        if (observer != null) {
+            observer.onEvent(SolverEvent.SPLIT, SolverEvent.positionOf(cell, b.size()), Integer.bitCount(branches));
+        }
+        List<SudokuSolverTask> tasks = new ArrayList<>();
+        for (int mask = branches; mask != 0; mask &= mask - 1) {
+            tasks.add(forkBranch(b, cell, Integer.numberOfTrailingZeros(mask) + 1, childDepth));
+        }
+        return tasks;
+    }
+
+    private SudokuSolverTask forkBranch(SudokuBoard from, int cell, int num, int childDepth) {
+        SudokuBoard newBoard = BoardPool.acquire(from);
+        newBoard.set(cell / from.size(), cell % from.size(), num);
+        SudokuSolverTask task = new SudokuSolverTask(newBoard, childDepth, observer, options,
+                propagationStats, token);
+        task.forkedBy = Thread.currentThread();
+        task.id = SearchEvents.nextId();
+        task.parentId = id;
+        task.branchPosition = SolverEvent.positionOf(cell, from.size());
+        task.branchDigit = num;
+        counters.forks++;
+        SearchEvents.Fork event = new SearchEvents.Fork();
+        if (event.isEnabled()) {
+            event.taskId = id;
+            event.childId = task.id;
+            event.depth = depth;
+            event.position = task.branchPosition;
+            event.digit = num;
+            event.commit();
+        }
+        task.fork();
+        return task;
+    }
+
+    /**
+     * Once a solution is published the token stops the others quickly, so joining
+     * all of them is cheap and lets every board go back to the pool.
+     */
+    private void joinAll(List<SudokuSolverTask> tasks) {
+        SearchEvents.Join event = new SearchEvents.Join();
+        event.begin();
+        for (SudokuSolverTask task : tasks) {
+            task.join();
+            BoardPool.release(task.board);
+        }
+        if (event.isEnabled()) {
+            event.taskId = id;
+            event.depth = depth;
+            event.subtasks = tasks.size();
+            event.commit();
+        }
+    }
+
+    private void solutionFound(int level) {
+        SearchEvents.Solution event = new SearchEvents.Solution();
+        if (event.isEnabled()) {
+            event.taskId = id;
+            event.depth = level;
+            event.nodes = counters.nodes;
+            event.commit();
+        }
+    }
+
+    /** The lowest ceil(n / 2) bits of mask. */
+    private static int lowerHalf(int mask) {
+        int keep = 0;
+        for (int n = (Integer.bitCount(mask) + 1) / 2; n > 0; n--) {
+            int bit = mask & -mask;
+            keep |= bit;
+            mask ^= bit;
         }
-        return null;
+        return keep;
     }
-}
\ No newline at end of file
+}
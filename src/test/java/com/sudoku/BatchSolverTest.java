@@ -0,0 +1,133 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BatchSolverTest {
+    private static final int THREADS = 4;
+
+    /** Sequential engine that lingers over one puzzle, so later ones finish first. */
+    private static final class SlowOn extends SequentialSolverEngine {
+        private final SudokuBoard slow;
+
+        SlowOn(SudokuBoard slow) {
+            super(SolverOptions.DEFAULT, null);
+            this.slow = slow;
+        }
+
+        @Override
+        public SudokuBoard solve(SudokuBoard board) {
+            if (board == slow) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.solve(board);
+        }
+    }
+
+    @Test
+    void orderedResultsFollowTheInput() {
+        List<SudokuBoard> puzzles = new ArrayList<>(Puzzles.corpus(3, 2, 10, 200));
+        puzzles.add(50, Puzzles.withConflict(puzzles.get(0)));
+        List<Long> indexes = new ArrayList<>();
+        List<SudokuBoard> seen = new ArrayList<>();
+        List<SudokuBoard> solutions = new ArrayList<>();
+        try (BatchSolver batch = new BatchSolver(THREADS, () -> new SlowOn(puzzles.get(3)))) {
+            BatchStats stats = batch.solve(puzzles.stream(), true, (index, puzzle, solution) -> {
+                indexes.add(index);
+                seen.add(puzzle);
+                solutions.add(solution);
+            });
+            assertEquals(puzzles.size(), stats.puzzles());
+            assertEquals(puzzles.size() - 1, stats.solved());
+        }
+        for (int i = 0; i < puzzles.size(); i++) {
+            assertEquals(i, indexes.get(i));
+            assertEquals(puzzles.get(i), seen.get(i));
+            if (i == 50) {
+                assertNull(solutions.get(i));
+            } else {
+                assertTrue(Puzzles.solves(puzzles.get(i), solutions.get(i)), "puzzle " + i);
+            }
+        }
+    }
+
+    @Test
+    void orderedBatchHoldsBackABoundedNumberOfResults() {
+        List<SudokuBoard> puzzles = Puzzles.corpus(2, 2, 11, 500);
+        AtomicLong emitted = new AtomicLong();
+        AtomicLong maxAhead = new AtomicLong();
+        Iterator<SudokuBoard> source = puzzles.iterator();
+        AtomicInteger taken = new AtomicInteger();
+        Iterator<SudokuBoard> counting = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public SudokuBoard next() {
+                maxAhead.accumulateAndGet(taken.incrementAndGet() - emitted.get(), Math::max);
+                return source.next();
+            }
+        };
+        try (BatchSolver batch = new BatchSolver(THREADS, () -> new SlowOn(puzzles.get(0)))) {
+            batch.solve(counting, true, (index, puzzle, solution) -> emitted.incrementAndGet());
+        }
+        assertEquals(puzzles.size(), emitted.get());
+        assertTrue(maxAhead.get() <= THREADS * 4, "held back " + maxAhead.get());
+    }
+
+    @Test
+    void unorderedResultsCoverEveryPuzzleOnce() {
+        List<SudokuBoard> puzzles = Puzzles.corpus(3, 2, 12, 100);
+        boolean[] seen = new boolean[puzzles.size()];
+        try (BatchSolver batch = new BatchSolver(THREADS, SolverOptions.DEFAULT)) {
+            batch.solve(puzzles.stream(), false, (index, puzzle, solution) -> {
+                assertFalse(seen[(int) index], "twice: " + index);
+                seen[(int) index] = true;
+                assertEquals(puzzles.get((int) index), puzzle);
+                assertTrue(Puzzles.solves(puzzle, solution));
+            });
+        }
+        for (boolean s : seen) assertTrue(s);
+    }
+
+    @Test
+    void solveAllKeepsInputOrderAcrossSizes() {
+        List<SudokuBoard> puzzles = new ArrayList<>(Puzzles.corpus(3, 2, 13, 20));
+        puzzles.addAll(10, Puzzles.corpus(2, 2, 13, 5));
+        try (BatchSolver batch = new BatchSolver(THREADS, SolverOptions.DEFAULT)) {
+            List<SudokuBoard> solutions = batch.solveAll(puzzles);
+            SequentialSolverEngine reference = new SequentialSolverEngine(SolverOptions.DEFAULT, null);
+            for (int i = 0; i < puzzles.size(); i++) {
+                assertArrayEquals(Puzzles.cells(reference.solve(puzzles.get(i))), Puzzles.cells(solutions.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void handlerFailureEndsTheOrderedBatch() {
+        List<SudokuBoard> puzzles = Puzzles.corpus(2, 2, 14, 500);
+        try (BatchSolver batch = new BatchSolver(THREADS, SolverOptions.DEFAULT)) {
+            assertThrows(IllegalStateException.class, () -> batch.solve(puzzles.stream(), true,
+                    (index, puzzle, solution) -> {
+                        if (index == 7) throw new IllegalArgumentException("handler failed");
+                    }));
+        }
+    }
+}
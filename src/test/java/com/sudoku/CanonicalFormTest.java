@@ -0,0 +1,115 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class CanonicalFormTest {
+
+    /** Random order of 0..n-1. */
+    private static int[] shuffled(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    /** Order of lines that shuffles the bands and the lines inside each band. */
+    private static int[] lineOrder(int box, SplittableRandom random) {
+        int[] bands = shuffled(box, random);
+        int[] order = new int[box * box];
+        for (int b = 0; b < box; b++) {
+            int[] inner = shuffled(box, random);
+            for (int i = 0; i < box; i++) order[b * box + i] = bands[b] * box + inner[i];
+        }
+        return order;
+    }
+
+    /** Applies a random symmetry: only row moves and relabelling when columns is false. */
+    private static SudokuBoard transform(SudokuBoard board, boolean columns, SplittableRandom random) {
+        int box = board.boxSize();
+        int size = board.size();
+        int[] rows = lineOrder(box, random);
+        int[] cols = columns ? lineOrder(box, random) : null;
+        int[] digits = shuffled(size, random);
+        boolean transpose = columns && random.nextBoolean();
+        SudokuBoard result = new SudokuBoard(box);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int col = columns ? cols[j] : j;
+                int value = transpose ? board.get(col, rows[i]) : board.get(rows[i], col);
+                result.set(i, j, value == 0 ? 0 : digits[value - 1] + 1);
+            }
+        }
+        return result;
+    }
+
+    private static SudokuBoard solve(SudokuBoard puzzle) {
+        return SolverRegistry.create("sequential", SolverOptions.DEFAULT, null).solve(puzzle);
+    }
+
+    @Test
+    void randomTransformsShareTheKeyOn9x9() {
+        SplittableRandom random = new SplittableRandom(22);
+        for (SudokuBoard puzzle : Puzzles.uniqueCorpus(3, 2, 22, 10)) {
+            String key = CanonicalForm.of(puzzle).key();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(key, CanonicalForm.of(transform(puzzle, true, random)).key());
+            }
+        }
+    }
+
+    @Test
+    void rowMovesAndRelabellingShareTheKeyOn16x16() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (SudokuBoard puzzle : Puzzles.corpus(4, 1, 23, 3)) {
+            assertEquals(CanonicalForm.of(puzzle).key(), CanonicalForm.of(transform(puzzle, false, random)).key());
+        }
+    }
+
+    @Test
+    void differentPuzzlesGetDifferentKeys() {
+        List<SudokuBoard> corpus = Puzzles.uniqueCorpus(3, 2, 24, 2);
+        assertNotEquals(CanonicalForm.of(corpus.get(0)).key(), CanonicalForm.of(corpus.get(1)).key());
+    }
+
+    @Test
+    void canonicalSolutionMapsBackOntoTheTransformedPuzzle() {
+        SplittableRandom random = new SplittableRandom(25);
+        for (SudokuBoard original : Puzzles.uniqueCorpus(3, 2, 25, 10)) {
+            SudokuBoard puzzle = transform(original, true, random);
+            CanonicalForm form = CanonicalForm.of(puzzle);
+
+            SudokuBoard canonicalPuzzle = form.toCanonical(puzzle);
+            assertArrayEquals(Puzzles.cells(puzzle), Puzzles.cells(form.fromCanonical(canonicalPuzzle)));
+
+            // As the cache does: solve in canonical form, then map the solution back
+            SudokuBoard solution = form.fromCanonical(solve(canonicalPuzzle));
+            assertTrue(Puzzles.solves(puzzle, solution));
+            assertArrayEquals(Puzzles.cells(solve(puzzle)), Puzzles.cells(solution));
+        }
+    }
+
+    @Test
+    void solutionOfOneVariantSolvesAnother() {
+        SplittableRandom random = new SplittableRandom(26);
+        SudokuBoard first = Puzzles.uniqueCorpus(3, 2, 26, 1).get(0);
+        SudokuBoard second = transform(first, true, random);
+        CanonicalForm firstForm = CanonicalForm.of(first);
+        CanonicalForm secondForm = CanonicalForm.of(second);
+        assertEquals(firstForm.key(), secondForm.key());
+
+        SudokuBoard cached = firstForm.toCanonical(solve(first));
+        assertTrue(Puzzles.solves(second, secondForm.fromCanonical(cached)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ConstraintPropagatorTest {
+
+    private static SudokuBoard solve(SudokuBoard puzzle, Set<ConstraintPropagator.Rule> rules) {
+        SequentialSudokuSolver solver = new SequentialSudokuSolver(puzzle.copy(), null, 0,
+                SolverOptions.DEFAULT.withPropagation(rules));
+        return solver.solve() ? solver.getSolvedBoard() : null;
+    }
+
+    /** On puzzles with one solution every rule set must find the one plain backtracking finds. */
+    private static void assertPropagationMatchesBacktracking(List<SudokuBoard> corpus) {
+        for (SudokuBoard puzzle : corpus) {
+            SudokuBoard plain = solve(puzzle, ConstraintPropagator.NO_RULES);
+            assertTrue(Puzzles.solves(puzzle, plain));
+            byte[] expected = Puzzles.cells(plain);
+            assertArrayEquals(expected, Puzzles.cells(solve(puzzle, ConstraintPropagator.ALL_RULES)), "all rules");
+            for (ConstraintPropagator.Rule rule : ConstraintPropagator.Rule.values()) {
+                assertArrayEquals(expected, Puzzles.cells(solve(puzzle, EnumSet.of(rule))), rule.name());
+            }
+        }
+    }
+
+    @Test
+    void everyRuleAgreesWithPlainBacktrackingOn9x9() {
+        assertPropagationMatchesBacktracking(Puzzles.uniqueCorpus(3, 3, 4, 30));
+    }
+
+    @Test
+    void everyRuleAgreesWithPlainBacktrackingOn4x4() {
+        assertPropagationMatchesBacktracking(Puzzles.uniqueCorpus(2, 3, 4, 20));
+    }
+
+    @Test
+    void everyRuleSolvesPuzzlesWithSeveralSolutions() {
+        for (SudokuBoard puzzle : Puzzles.corpus(4, 2, 4, 3)) {
+            assertTrue(Puzzles.solves(puzzle, solve(puzzle, ConstraintPropagator.ALL_RULES)), "all rules");
+            for (ConstraintPropagator.Rule rule : ConstraintPropagator.Rule.values()) {
+                assertTrue(Puzzles.solves(puzzle, solve(puzzle, EnumSet.of(rule))), rule.name());
+            }
+        }
+    }
+
+    @Test
+    void heuristicsRankCellsByThePropagatorsCandidates() {
+        for (BranchingHeuristic heuristic : EnumSet.of(BranchingHeuristic.MRV, BranchingHeuristic.MRV_DEGREE)) {
+            for (SudokuBoard puzzle : Puzzles.uniqueCorpus(3, 3, 6, 20)) {
+                byte[] solution = Puzzles.cells(solve(puzzle, ConstraintPropagator.NO_RULES));
+                SudokuBoard board = puzzle.copy();
+                // Only eliminations, so many cells have fewer candidates than the board's masks show
+                ConstraintPropagator propagator = new ConstraintPropagator(board, EnumSet.of(
+                        ConstraintPropagator.Rule.NAKED_PAIR, ConstraintPropagator.Rule.HIDDEN_PAIR,
+                        ConstraintPropagator.Rule.POINTING_CLAIMING), new PropagationStats());
+                // Walk down to the solution, checking the choice at every branching
+                assertTrue(propagator.propagate());
+                for (int selected = heuristic.select(propagator); selected >= 0;
+                     selected = heuristic.select(propagator)) {
+                    int fewest = Integer.bitCount(propagator.candidates(selected));
+                    for (int cell = 0; cell < board.cellCount(); cell++) {
+                        if (board.get(cell) != 0) continue;
+                        assertTrue(Integer.bitCount(propagator.candidates(cell)) >= fewest, heuristic.name());
+                    }
+                    propagator.place(selected, solution[selected]);
+                    assertTrue(propagator.propagate());
+                }
+            }
+        }
+    }
+
+    @Test
+    void propagationNeverRemovesTheSolutionDigit() {
+        for (SudokuBoard puzzle : Puzzles.uniqueCorpus(3, 3, 5, 20)) {
+            byte[] solution = Puzzles.cells(solve(puzzle, ConstraintPropagator.NO_RULES));
+            SudokuBoard board = puzzle.copy();
+            ConstraintPropagator propagator =
+                    new ConstraintPropagator(board, ConstraintPropagator.ALL_RULES, new PropagationStats());
+            assertTrue(propagator.propagate());
+            for (int cell = 0; cell < board.cellCount(); cell++) {
+                int value = board.get(cell);
+                if (value != 0) {
+                    assertEquals(solution[cell], value, "placed at " + cell);
+                } else {
+                    assertTrue((propagator.candidates(cell) & 1 << (solution[cell] - 1)) != 0, "candidate at " + cell);
+                }
+            }
+        }
+    }
+
+    @Test
+    void undoRestoresBoardAndCandidates() {
+        SudokuBoard board = Puzzles.uniqueCorpus(3, 3, 6, 1).get(0);
+        byte[] before = Puzzles.cells(board);
+        ConstraintPropagator propagator =
+                new ConstraintPropagator(board, ConstraintPropagator.ALL_RULES, new PropagationStats());
+        int[] candidates = new int[board.cellCount()];
+        for (int cell = 0; cell < candidates.length; cell++) candidates[cell] = propagator.candidates(cell);
+
+        int mark = propagator.mark();
+        propagator.propagate();
+        int cell = board.cellCount() - 1;
+        while (board.get(cell) != 0) cell--;
+        propagator.place(cell, Integer.numberOfTrailingZeros(propagator.candidates(cell)) + 1);
+        propagator.propagate();
+        propagator.undo(mark);
+
+        assertArrayEquals(before, Puzzles.cells(board));
+        for (int i = 0; i < candidates.length; i++) assertEquals(candidates[i], propagator.candidates(i), "cell " + i);
+    }
+}
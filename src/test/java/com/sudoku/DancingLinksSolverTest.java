@@ -0,0 +1,88 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DancingLinksSolverTest {
+
+    @Test
+    void solvesUniquePuzzlesLikeBacktracking() {
+        for (int box = 2; box <= 3; box++) {
+            for (SudokuBoard puzzle : Puzzles.uniqueCorpus(box, 3, 11, 15)) {
+                SudokuBoard solution = new DancingLinksSolver(puzzle).solve();
+                assertTrue(Puzzles.solves(puzzle, solution));
+                assertArrayEquals(Puzzles.cells(new MultiSolutionSolver(puzzle).findAll(1).get(0)),
+                        Puzzles.cells(solution));
+                assertEquals(1, new DancingLinksSolver(puzzle).countSolutions(10));
+            }
+        }
+    }
+
+    @Test
+    void solvesLargerGrids() {
+        for (int box = 4; box <= SudokuBoard.MAX_BOX_SIZE; box++) {
+            SudokuBoard puzzle = Puzzles.corpus(box, 1, 12, 1).get(0);
+            assertTrue(Puzzles.solves(puzzle, new DancingLinksSolver(puzzle).solve()), box + "x" + box + " boxes");
+        }
+    }
+
+    @Test
+    void countsAndSolutionsMatchMultiSolutionSolver() {
+        for (SudokuBoard board : List.of(Puzzles.openRows(3, 3), Puzzles.openRows(4, 3))) {
+            long expected = new MultiSolutionSolver(board).countSolutions(Long.MAX_VALUE);
+            DancingLinksSolver dlx = new DancingLinksSolver(board);
+            assertEquals(expected, dlx.countSolutions(Long.MAX_VALUE));
+            assertEquals(5, dlx.countSolutions(5));
+
+            List<SudokuBoard> all = dlx.findAll(Integer.MAX_VALUE);
+            assertEquals(expected, all.size());
+            for (SudokuBoard solution : all) assertTrue(Puzzles.solves(board, solution));
+            assertEquals(Puzzles.keys(new MultiSolutionSolver(board).findAll(Integer.MAX_VALUE)), Puzzles.keys(all));
+
+            // solveNth walks the same order as enumerate
+            for (int index = 0; index < all.size(); index += 97) {
+                assertArrayEquals(Puzzles.cells(all.get(index)), Puzzles.cells(dlx.solveNth(index)));
+            }
+            assertNull(dlx.solveNth(expected));
+        }
+    }
+
+    @Test
+    void conflictingGivensHaveNoSolution() {
+        SudokuBoard board = Puzzles.withConflict(Puzzles.uniqueCorpus(3, 1, 13, 1).get(0));
+        DancingLinksSolver dlx = new DancingLinksSolver(board);
+        assertNull(dlx.solve());
+        assertEquals(0, dlx.countSolutions(10));
+        assertTrue(dlx.findAll(10).isEmpty());
+    }
+
+    @Test
+    void solvedBoardCountsOnce() {
+        SudokuBoard solved = new DancingLinksSolver(new SudokuBoard()).solve();
+        assertTrue(Puzzles.solves(new SudokuBoard(), solved));
+        assertEquals(1, new DancingLinksSolver(solved).countSolutions(10));
+    }
+
+    @Test
+    void searchesCountIntoMetricsFromOptions() {
+        SolverMetrics metrics = new SolverMetrics("dlx-test");
+        Solver engine = SolverRegistry.create("dlx", SolverOptions.DEFAULT.withMetrics(metrics), null);
+        SudokuBoard board = Puzzles.openRows(3, 3);
+
+        assertEquals(144, engine.countSolutions(board, Long.MAX_VALUE));
+        long nodes = metrics.getNodes();
+        assertTrue(nodes >= 144, "nodes " + nodes);
+        assertTrue(metrics.getBacktracks() > 0);
+        assertTrue(metrics.getCandidateChecks() >= metrics.getBacktracks());
+        assertTrue(metrics.getMaxDepth() > 0);
+
+        // Counters are flushed per search, so a second one adds to the totals
+        engine.solve(board);
+        assertTrue(metrics.getNodes() > nodes);
+    }
+}
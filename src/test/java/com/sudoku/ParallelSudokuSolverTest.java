@@ -0,0 +1,47 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelSudokuSolverTest {
+
+    private static SudokuBoard sequentialNth(SudokuBoard board, int index) {
+        SequentialSudokuSolver solver = new SequentialSudokuSolver(board.copy(), null, index);
+        return solver.solve() ? solver.getSolvedBoard() : null;
+    }
+
+    private static void assertSameNth(SudokuBoard board, int index) {
+        ForkJoinPool pool = ParallelSudokuSolver.defaultPool();
+        SudokuBoard expected = sequentialNth(board, index);
+        SudokuBoard actual = ParallelSudokuSolver.solveNth(pool, board, SolverOptions.DEFAULT, index);
+        if (expected == null) {
+            assertNull(actual, "solution " + index);
+        } else {
+            assertArrayEquals(Puzzles.cells(expected), Puzzles.cells(actual), "solution " + index);
+        }
+    }
+
+    @Test
+    void solveNthFollowsSequentialOrderOn9x9() {
+        SudokuBoard board = Puzzles.openRows(3, 3);
+        long count = ParallelSudokuSolver.countSolutions(board, SolverOptions.DEFAULT, Long.MAX_VALUE);
+        assertEquals(144, count);
+        for (int index = 0; index <= count; index++) assertSameNth(board, index);
+    }
+
+    @Test
+    void solveNthFollowsSequentialOrderOn16x16() {
+        // Branches here place digits 16 and up, which no longer fit a 4-bit step
+        SudokuBoard board = Puzzles.openRows(4, 3);
+        long count = ParallelSudokuSolver.countSolutions(board, SolverOptions.DEFAULT, Long.MAX_VALUE);
+        assertEquals(3504, count);
+        // A sample of indices keeps the test quick; the last solution and one past the end too
+        for (int index = 0; index < count; index += 499) assertSameNth(board, index);
+        assertSameNth(board, (int) count - 1);
+        assertSameNth(board, (int) count);
+    }
+}
@@ -0,0 +1,84 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PoolConfigTest {
+
+    /** Names of the threads that ran this many tasks at once, so each task needed a worker of its own. */
+    private static Set<String> workerNames(ForkJoinPool pool, int workers) throws InterruptedException {
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        CountDownLatch running = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> {
+                names.add(Thread.currentThread().getName());
+                running.countDown();
+                try {
+                    // Hold this worker until every task has one
+                    running.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(running.await(10, TimeUnit.SECONDS), "workers did not all start");
+        return names;
+    }
+
+    @Test
+    void workersGetDistinctPrefixedNames() throws InterruptedException {
+        ForkJoinPool pool = PoolConfig.DEFAULT.withParallelism(4).withThreadNamePrefix("pool-test").newPool();
+        try {
+            Set<String> names = workerNames(pool, 4);
+            assertEquals(Set.of("pool-test-0", "pool-test-1", "pool-test-2", "pool-test-3"), names);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void eachPoolNumbersItsOwnWorkers() throws InterruptedException {
+        PoolConfig config = PoolConfig.DEFAULT.withParallelism(2).withThreadNamePrefix("twice");
+        for (int round = 0; round < 2; round++) {
+            ForkJoinPool pool = config.newPool();
+            try {
+                assertEquals(Set.of("twice-0", "twice-1"), workerNames(pool, 2));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void rejectsBadSizes() {
+        assertThrows(IllegalArgumentException.class, () -> PoolConfig.DEFAULT.withParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> PoolConfig.DEFAULT.withMaxSpareThreads(-1));
+    }
+
+    @Test
+    void registeredPoolsAreSharedByNameUntilShutDown() {
+        PoolConfig config = PoolConfig.DEFAULT.withParallelism(1);
+        try {
+            ForkJoinPool pool = SolverPools.register("pool-test", config);
+            assertEquals(1, pool.getParallelism());
+            assertSame(pool, SolverPools.get("pool-test"));
+            assertSame(pool, SolverPools.getOrCreate("pool-test", PoolConfig.DEFAULT));
+
+            ForkJoinPool replacement = SolverPools.register("pool-test", config);
+            assertTrue(pool.isShutdown());
+            assertSame(replacement, SolverPools.get("pool-test"));
+        } finally {
+            SolverPools.shutdown("pool-test");
+        }
+        assertThrows(IllegalArgumentException.class, () -> SolverPools.get("pool-test"));
+    }
+}
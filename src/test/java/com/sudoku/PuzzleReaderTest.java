@@ -0,0 +1,146 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PuzzleReaderTest {
+    // PuzzleReader maps files in windows of this many bytes
+    private static final long WINDOW = 64L * 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private static List<SudokuBoard> readAll(Path file, int boxSize) throws IOException {
+        List<SudokuBoard> boards = new ArrayList<>();
+        try (PuzzleReader reader = new PuzzleReader(file, boxSize)) {
+            reader.forEachRemaining(boards::add);
+        }
+        return boards;
+    }
+
+    private static void assertSameBoards(List<SudokuBoard> expected, List<SudokuBoard> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(Puzzles.cells(expected.get(i)), Puzzles.cells(actual.get(i)), "puzzle " + i);
+        }
+    }
+
+    @Test
+    void roundTripsEverySize() throws IOException {
+        for (int box = SudokuBoard.MIN_BOX_SIZE; box <= SudokuBoard.MAX_BOX_SIZE; box++) {
+            List<SudokuBoard> puzzles = Puzzles.corpus(box, 2, 11, box < 4 ? 50 : 5);
+            Path file = dir.resolve(box + ".txt");
+            try (PuzzleWriter writer = new PuzzleWriter(file)) {
+                puzzles.forEach(writer::write);
+            }
+            assertSameBoards(puzzles, readAll(file, box));
+        }
+    }
+
+    @Test
+    void acceptsCommentsBlankLinesCarriageReturnsAndLowerCase() throws IOException {
+        SudokuBoard puzzle = Puzzles.corpus(4, 2, 12, 1).get(0);
+        StringBuilder line = new StringBuilder();
+        for (int cell = 0; cell < puzzle.cellCount(); cell++) {
+            int value = puzzle.get(cell);
+            line.append(value == 0 ? '0' : Character.toLowerCase(PuzzleWriter.symbol(value)));
+        }
+        Path file = dir.resolve("mixed.txt");
+        Files.writeString(file, "# 16x16\r\n\r\n" + line + " trailing notes\r\n\n#\n" + line, StandardCharsets.US_ASCII);
+        assertSameBoards(List.of(puzzle, puzzle), readAll(file, 4));
+    }
+
+    @Test
+    void parsesSinglePuzzleStrings() {
+        SudokuBoard puzzle = Puzzles.corpus(4, 2, 15, 1).get(0);
+        StringBuilder line = new StringBuilder();
+        for (int cell = 0; cell < puzzle.cellCount(); cell++) line.append(PuzzleWriter.symbol(puzzle.get(cell)));
+        assertArrayEquals(Puzzles.cells(puzzle), Puzzles.cells(PuzzleReader.parse(line + " # notes", 4)));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> PuzzleReader.parse(line.substring(0, 100), 4));
+        assertTrue(e.getMessage().contains("end of input at column 101"), e.getMessage());
+    }
+
+    @Test
+    void reportsTheLineOfABadCell() throws IOException {
+        Path file = dir.resolve("bad.txt");
+        Files.writeString(file, "# header\n" + ".".repeat(40) + "x" + ".".repeat(40) + "\n");
+        try (PuzzleReader reader = new PuzzleReader(file)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(e.getMessage().startsWith("Line 2:"), e.getMessage());
+            assertTrue(e.getMessage().contains("column 41"), e.getMessage());
+        }
+    }
+
+    @Test
+    void readsLinesAcrossMappingWindows() throws IOException {
+        List<SudokuBoard> puzzles = Puzzles.corpus(3, 2, 13, 20);
+        // Window boundary at the start of a line, after its first cell, in its middle,
+        // before its last cell and before its newline
+        for (long shift : new long[] {0, 1, 40, 80, 81}) {
+            Path file = dir.resolve("window" + shift + ".txt");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                // The fourth puzzle line starts shift bytes before the boundary
+                writePadding(channel, WINDOW - shift - 3 * 82);
+                PuzzleWriter writer = new PuzzleWriter(channel);
+                puzzles.forEach(writer::write);
+                writer.close();
+            }
+            assertSameBoards(puzzles, readAll(file, 3));
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void roundTripsAFileOfSeveralWindows() throws IOException {
+        List<SudokuBoard> puzzles = Puzzles.corpus(3, 2, 14, 97);
+        Path file = dir.resolve("large.txt");
+        long lines = 2 * WINDOW / 82 + 1000;
+        try (PuzzleWriter writer = new PuzzleWriter(file)) {
+            for (long i = 0; i < lines; i++) writer.write(puzzles.get((int) (i % puzzles.size())));
+        }
+        assertTrue(Files.size(file) > 2 * WINDOW);
+
+        long read = 0;
+        try (PuzzleReader reader = new PuzzleReader(file)) {
+            while (reader.hasNext()) {
+                SudokuBoard board = reader.next();
+                assertArrayEquals(Puzzles.cells(puzzles.get((int) (read % puzzles.size()))), Puzzles.cells(board),
+                        "puzzle " + read);
+                read++;
+            }
+            assertFalse(reader.hasNext());
+        }
+        assertEquals(lines, read);
+    }
+
+    /** A comment line that fills exactly length bytes, newline included. */
+    private static void writePadding(FileChannel channel, long length) throws IOException {
+        channel.write(ByteBuffer.wrap(new byte[] {'#'}));
+        byte[] dashes = new byte[1 << 20];
+        Arrays.fill(dashes, (byte) '-');
+        for (long remaining = length - 2; remaining > 0; ) {
+            ByteBuffer chunk = ByteBuffer.wrap(dashes, 0, (int) Math.min(dashes.length, remaining));
+            while (chunk.hasRemaining()) remaining -= channel.write(chunk);
+        }
+        channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+    }
+}
@@ -0,0 +1,94 @@
+package com.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/** Seeded puzzle corpora and solution checks shared by the tests. */
+final class Puzzles {
+    private Puzzles() {
+    }
+
+    static List<SudokuBoard> corpus(int boxSize, int difficulty, long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<SudokuBoard> puzzles = new ArrayList<>();
+        for (int i = 0; i < count; i++) puzzles.add(SudokuGenerator.generate(boxSize, difficulty, random));
+        return puzzles;
+    }
+
+    /** Puzzles with exactly one solution, at the clue count of difficulty. */
+    static List<SudokuBoard> uniqueCorpus(int boxSize, int difficulty, long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int clues = SudokuGenerator.cluesFor(boxSize, difficulty);
+        List<SudokuBoard> puzzles = new ArrayList<>();
+        for (int i = 0; i < count; i++) puzzles.add(SudokuGenerator.generateUnique(boxSize, clues, random));
+        return puzzles;
+    }
+
+    /** A solved grid with its first rows cleared again, which leaves many solutions. */
+    static SudokuBoard openRows(int boxSize, int rows) {
+        SudokuBoard puzzle = corpus(boxSize, 2, 7, 1).get(0);
+        SudokuBoard board = SolverRegistry.create("sequential", SolverOptions.DEFAULT, null).solve(puzzle);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < board.size(); col++) board.set(row, col, 0);
+        }
+        return board;
+    }
+
+    /** A copy of puzzle with the first given of row 0 repeated in an empty cell of that row. */
+    static SudokuBoard withConflict(SudokuBoard puzzle) {
+        SudokuBoard board = puzzle.copy();
+        int given = 0;
+        int empty = -1;
+        for (int col = 0; col < board.size(); col++) {
+            if (board.get(0, col) == 0) {
+                if (empty < 0) empty = col;
+            } else if (given == 0) {
+                given = board.get(0, col);
+            }
+        }
+        if (given == 0 || empty < 0) throw new IllegalArgumentException("row 0 needs a given and an empty cell");
+        board.set(0, empty, given);
+        return board;
+    }
+
+    /** The solutions' cells as strings, for comparing solution sets regardless of order. */
+    static Set<String> keys(Collection<SudokuBoard> solutions) {
+        Set<String> keys = new HashSet<>();
+        for (SudokuBoard solution : solutions) keys.add(Arrays.toString(cells(solution)));
+        return keys;
+    }
+
+    /** True if solution is complete, valid and keeps every given of puzzle. */
+    static boolean solves(SudokuBoard puzzle, SudokuBoard solution) {
+        if (solution == null || !puzzle.sameShape(solution) || solution.emptyCells() != 0) return false;
+        int size = puzzle.size();
+        for (int cell = 0; cell < puzzle.cellCount(); cell++) {
+            if (puzzle.get(cell) != 0 && puzzle.get(cell) != solution.get(cell)) return false;
+        }
+        int box = puzzle.boxSize();
+        for (int i = 0; i < size; i++) {
+            int row = 0;
+            int col = 0;
+            int square = 0;
+            for (int j = 0; j < size; j++) {
+                row |= 1 << solution.get(i, j);
+                col |= 1 << solution.get(j, i);
+                square |= 1 << solution.get(i / box * box + j / box, i % box * box + j % box);
+            }
+            int all = solution.allDigits() << 1;
+            if (row != all || col != all || square != all) return false;
+        }
+        return true;
+    }
+
+    static byte[] cells(SudokuBoard board) {
+        byte[] cells = new byte[board.cellCount()];
+        board.snapshot(cells);
+        return cells;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearchProfileTest {
+    @TempDir
+    Path dir;
+
+    private static final SudokuObserver QUIET = new SudokuObserver() {
+        @Override
+        public void onCellUpdate(int row, int col, int value) {
+        }
+
+        @Override
+        public void onLog(String message) {
+        }
+    };
+
+    @Test
+    void workersWithTheSameNameInTwoPoolsStayApart() throws Exception {
+        // Both pools name their workers profile-0 and profile-1
+        PoolConfig config = PoolConfig.DEFAULT.withParallelism(2).withThreadNamePrefix("profile");
+        ForkJoinPool first = config.newPool();
+        ForkJoinPool second = config.newPool();
+        List<SudokuBoard> puzzles = Puzzles.corpus(3, 3, 41, 6);
+        Path file = dir.resolve("search.jfr");
+        Recording recording = SearchEvents.startRecording(file);
+        try {
+            List<SolveHandle> solves = new ArrayList<>();
+            for (int i = 0; i < puzzles.size(); i++) {
+                ForkJoinPool pool = i % 2 == 0 ? first : second;
+                solves.add(ParallelSudokuSolver.submit(pool, puzzles.get(i), QUIET, SolverOptions.DEFAULT,
+                        new PropagationStats()));
+            }
+            for (int i = 0; i < puzzles.size(); i++) {
+                assertTrue(Puzzles.solves(puzzles.get(i), solves.get(i).await()));
+            }
+        } finally {
+            recording.stop();
+            recording.close();
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+
+        SearchProfile profile = SearchProfile.read(file);
+        assertEquals(puzzles.size(), profile.solves());
+        Map<Long, Double> utilization = profile.utilization();
+        assertFalse(utilization.isEmpty());
+        for (Map.Entry<Long, Double> worker : utilization.entrySet()) {
+            assertTrue(worker.getValue() <= 100.0, "thread " + worker.getKey() + " at " + worker.getValue() + "%");
+        }
+    }
+}
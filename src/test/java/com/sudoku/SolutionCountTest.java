@@ -0,0 +1,95 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SolutionCountTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        // More workers than the sandbox may have cores, so counts really run split and stolen
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static long parallelCount(SudokuBoard board, long limit) {
+        return ParallelSudokuSolver.countSolutions(pool, board, SolverOptions.DEFAULT, limit);
+    }
+
+    @Test
+    void parallelCountMatchesSequentialAndDancingLinks() {
+        for (SudokuBoard board : List.of(Puzzles.openRows(2, 2), Puzzles.openRows(3, 3), Puzzles.openRows(3, 4),
+                Puzzles.openRows(4, 2))) {
+            long expected = new DancingLinksSolver(board).countSolutions(Long.MAX_VALUE);
+            assertEquals(expected, new MultiSolutionSolver(board).countSolutions(Long.MAX_VALUE));
+            assertEquals(expected, parallelCount(board, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void countsStopAtTheLimit() {
+        SudokuBoard board = Puzzles.openRows(3, 4);
+        for (long limit : new long[] {0, 1, 2, 17, 1000}) {
+            assertEquals(limit, new MultiSolutionSolver(board).countSolutions(limit));
+            assertEquals(limit, new DancingLinksSolver(board).countSolutions(limit));
+            assertEquals(limit, parallelCount(board, limit));
+        }
+    }
+
+    @Test
+    void solveNthCountsPastEarlierSolutionsInEnumerationOrder() {
+        SudokuBoard board = Puzzles.openRows(3, 3);
+        List<SudokuBoard> all = new MultiSolutionSolver(board).findAll(Integer.MAX_VALUE);
+        Solver multi = SolverRegistry.create("multi", SolverOptions.DEFAULT, null);
+        for (int index = 0; index < all.size(); index++) {
+            byte[] expected = Puzzles.cells(all.get(index));
+            String message = "solution " + index;
+            assertArrayEquals(expected, Puzzles.cells(new MultiSolutionSolver(board).solveNth(index)), message);
+            assertArrayEquals(expected, Puzzles.cells(multi.solveNth(board, index)), message);
+        }
+        assertNull(multi.solveNth(board, all.size()));
+        assertNull(new MultiSolutionSolver(board).solveNth(-1));
+    }
+
+    @Test
+    void uniquenessAgreesAcrossEngines() {
+        for (SudokuBoard puzzle : Puzzles.uniqueCorpus(3, 3, 21, 10)) {
+            assertTrue(new MultiSolutionSolver(puzzle).isUnique());
+            assertEquals(1, parallelCount(puzzle, 2));
+            for (String name : SolverRegistry.names()) {
+                assertTrue(SolverRegistry.create(name, SolverOptions.DEFAULT, null).isUnique(puzzle), name);
+            }
+        }
+        SudokuBoard open = Puzzles.openRows(3, 2);
+        assertFalse(new MultiSolutionSolver(open).isUnique());
+        for (String name : SolverRegistry.names()) {
+            assertFalse(SolverRegistry.create(name, SolverOptions.DEFAULT, null).isUnique(open), name);
+        }
+    }
+
+    @Test
+    void conflictingGivensCountZeroOnEveryEngine() {
+        SudokuBoard board = Puzzles.withConflict(Puzzles.corpus(3, 3, 22, 1).get(0));
+        assertEquals(0, new MultiSolutionSolver(board).countSolutions(10));
+        assertEquals(0, parallelCount(board, 10));
+        for (String name : SolverRegistry.names()) {
+            Solver solver = SolverRegistry.create(name, SolverOptions.DEFAULT, null);
+            assertEquals(0, solver.countSolutions(board, 10), name);
+            assertFalse(solver.isUnique(board), name);
+        }
+    }
+}
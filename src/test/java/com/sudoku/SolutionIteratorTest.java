@@ -0,0 +1,61 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class SolutionIteratorTest {
+
+    private static List<SudokuBoard> drain(SolutionIterator iterator) {
+        List<SudokuBoard> solutions = new ArrayList<>();
+        while (iterator.hasNext()) solutions.add(iterator.next());
+        return solutions;
+    }
+
+    @Test
+    void yieldsTheMultiSolverSolutionsInOrder() {
+        for (SudokuBoard board : List.of(Puzzles.openRows(2, 2), Puzzles.openRows(3, 3), Puzzles.openRows(4, 2))) {
+            List<SudokuBoard> expected = new MultiSolutionSolver(board).findAll(Integer.MAX_VALUE);
+            List<SudokuBoard> actual = drain(new SolutionIterator(board));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(Puzzles.cells(expected.get(i)), Puzzles.cells(actual.get(i)), "solution " + i);
+            }
+        }
+    }
+
+    @Test
+    void skipLandsWhereEnumerationWould() {
+        SudokuBoard board = Puzzles.openRows(3, 3);
+        List<SudokuBoard> all = new MultiSolutionSolver(board).findAll(Integer.MAX_VALUE);
+        SolutionIterator iterator = new SolutionIterator(board);
+        assertEquals(10, iterator.skip(10));
+        assertEquals(10, iterator.position());
+        assertArrayEquals(Puzzles.cells(all.get(10)), Puzzles.cells(iterator.next()));
+        assertEquals(11, iterator.position());
+
+        assertEquals(all.size() - 11, iterator.skip(Long.MAX_VALUE));
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void leavesThePuzzleUntouched() {
+        SudokuBoard board = Puzzles.openRows(3, 3);
+        byte[] before = Puzzles.cells(board);
+        drain(new SolutionIterator(board));
+        assertArrayEquals(before, Puzzles.cells(board));
+    }
+
+    @Test
+    void conflictingGivensYieldNothing() {
+        SudokuBoard board = Puzzles.withConflict(Puzzles.corpus(3, 3, 31, 1).get(0));
+        assertFalse(new SolutionIterator(board).hasNext());
+    }
+}
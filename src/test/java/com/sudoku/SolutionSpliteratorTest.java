@@ -0,0 +1,85 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class SolutionSpliteratorTest {
+
+    private static final List<SudokuBoard> BOARDS =
+            List.of(Puzzles.openRows(2, 2), Puzzles.openRows(3, 3), Puzzles.openRows(3, 4), Puzzles.openRows(4, 2));
+
+    private static Set<String> expected(SudokuBoard board) {
+        return Puzzles.keys(new MultiSolutionSolver(board).findAll(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void sequentialStreamYieldsEverySolutionOnce() {
+        for (SudokuBoard board : BOARDS) {
+            List<SudokuBoard> solutions = new MultiSolutionSolver(board).stream().collect(Collectors.toList());
+            Set<String> expected = expected(board);
+            assertEquals(expected.size(), solutions.size());
+            assertEquals(expected, Puzzles.keys(solutions));
+        }
+    }
+
+    @Test
+    void parallelStreamYieldsEverySolutionOnce() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (SudokuBoard board : BOARDS) {
+                List<SudokuBoard> solutions = pool.submit(() ->
+                        new MultiSolutionSolver(board).stream().parallel().collect(Collectors.toList())).get();
+                Set<String> expected = expected(board);
+                assertEquals(expected.size(), solutions.size());
+                assertEquals(expected, Puzzles.keys(solutions));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void splittingDownToTheLeavesLosesNothing() {
+        for (SudokuBoard board : BOARDS) {
+            List<SudokuBoard> solutions = new ArrayList<>();
+            ArrayDeque<Spliterator<SudokuBoard>> parts = new ArrayDeque<>();
+            parts.add(new SolutionSpliterator(board, SolverOptions.DEFAULT));
+            while (!parts.isEmpty()) {
+                Spliterator<SudokuBoard> part = parts.poll();
+                Spliterator<SudokuBoard> prefix = part.trySplit();
+                if (prefix != null) {
+                    parts.add(prefix);
+                    parts.add(part);
+                } else {
+                    part.forEachRemaining(solutions::add);
+                }
+            }
+            assertEquals(expected(board), Puzzles.keys(solutions));
+            assertEquals(solutions.size(), Puzzles.keys(solutions).size());
+        }
+    }
+
+    @Test
+    void limitStopsAfterThatManyDistinctSolutions() {
+        SudokuBoard board = Puzzles.openRows(3, 4);
+        List<SudokuBoard> some = new MultiSolutionSolver(board).stream().parallel().limit(25)
+                .collect(Collectors.toList());
+        assertEquals(25, Puzzles.keys(some).size());
+        for (SudokuBoard solution : some) assertTrue(Puzzles.solves(board, solution));
+    }
+
+    @Test
+    void conflictingGivensStreamNothing() {
+        SudokuBoard board = Puzzles.withConflict(Puzzles.corpus(3, 3, 41, 1).get(0));
+        assertEquals(0, new MultiSolutionSolver(board).stream().parallel().count());
+    }
+}
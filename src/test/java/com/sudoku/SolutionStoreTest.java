@@ -0,0 +1,180 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SolutionStoreTest {
+    @TempDir
+    Path dir;
+
+    private static final List<SudokuBoard> PUZZLES = new ArrayList<>();
+    private static final List<SudokuBoard> SOLUTIONS = new ArrayList<>();
+
+    static {
+        Solver solver = SolverRegistry.create("dlx", SolverOptions.DEFAULT, null);
+        for (int box = 2; box <= 4; box++) {
+            for (SudokuBoard puzzle : Puzzles.corpus(box, 2, 23, box == 4 ? 5 : 40)) {
+                PUZZLES.add(puzzle);
+                SOLUTIONS.add(solver.solve(puzzle));
+            }
+        }
+    }
+
+    private static void fill(SolutionStore store, int count) {
+        for (int i = 0; i < count; i++) store.put(PUZZLES.get(i), SOLUTIONS.get(i));
+    }
+
+    private static void assertStored(SolutionStore store, int count) {
+        for (int i = 0; i < count; i++) {
+            SudokuBoard stored = store.get(PUZZLES.get(i));
+            assertArrayEquals(Puzzles.cells(SOLUTIONS.get(i)), Puzzles.cells(stored), "puzzle " + i);
+        }
+    }
+
+    private Path index(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    @Test
+    void solutionsSurviveReopening() throws IOException {
+        Path file = dir.resolve("solutions.db");
+        try (SolutionStore store = new SolutionStore(file)) {
+            fill(store, PUZZLES.size());
+            assertEquals(PUZZLES.size(), store.size());
+            assertStored(store, PUZZLES.size());
+        }
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertEquals(0, store.recoveredBytes());
+            assertEquals(PUZZLES.size(), store.size());
+            assertStored(store, PUZZLES.size());
+            assertNull(store.get(new SudokuBoard()));
+        }
+    }
+
+    @Test
+    void truncatedTailIsCutOffOnOpen() throws IOException {
+        Path file = dir.resolve("solutions.db");
+        long complete;
+        try (SolutionStore store = new SolutionStore(file)) {
+            fill(store, 10);
+            complete = store.bytes();
+            store.put(PUZZLES.get(10), SOLUTIONS.get(10));
+        }
+        // A crash halfway through writing the last record
+        long torn = complete + (Files.size(file) - complete) / 2;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(torn);
+        }
+
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertEquals(torn - complete, store.recoveredBytes());
+            assertEquals(10, store.size());
+            assertEquals(complete, Files.size(file));
+            assertStored(store, 10);
+            assertNull(store.get(PUZZLES.get(10)));
+            fill(store, 20);
+        }
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertEquals(0, store.recoveredBytes());
+            assertStored(store, 20);
+        }
+    }
+
+    @Test
+    void corruptLastRecordIsCutOffOnOpen() throws IOException {
+        Path file = dir.resolve("solutions.db");
+        long complete;
+        try (SolutionStore store = new SolutionStore(file)) {
+            fill(store, 10);
+            complete = store.bytes();
+            store.put(PUZZLES.get(10), SOLUTIONS.get(10));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+        // The clean index still points at the record, but its checksum no longer matches
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertEquals(0, store.recoveredBytes());
+            assertStored(store, 10);
+            assertNull(store.get(PUZZLES.get(10)));
+        }
+        // After a crash the rebuild stops at the corrupt record and cuts it off
+        Files.delete(index(file));
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertTrue(store.recoveredBytes() > 0);
+            assertEquals(complete, store.bytes());
+            assertEquals(10, store.size());
+            assertStored(store, 10);
+            assertNull(store.get(PUZZLES.get(10)));
+        }
+    }
+
+    @Test
+    void dirtyIndexIsRebuiltFromTheRecords() throws IOException {
+        Path file = dir.resolve("solutions.db");
+        Path crashed = dir.resolve("crashed.db");
+        try (SolutionStore store = new SolutionStore(file)) {
+            fill(store, 30);
+            store.sync();
+            // Snapshot of the files as a crash would leave them: index not marked clean
+            Files.copy(file, crashed);
+            Files.copy(index(file), index(crashed));
+            fill(store, 40);
+        }
+
+        // Wipe the stale index slots too, so lookups can only work after a rebuild
+        byte[] stale = Files.readAllBytes(index(crashed));
+        for (int i = 64; i < stale.length; i++) stale[i] = 0;
+        Files.write(index(crashed), stale);
+        try (SolutionStore store = new SolutionStore(crashed)) {
+            assertEquals(30, store.size());
+            assertStored(store, 30);
+            fill(store, PUZZLES.size());
+        }
+        try (SolutionStore store = new SolutionStore(crashed)) {
+            assertEquals(PUZZLES.size(), store.size());
+            assertStored(store, PUZZLES.size());
+        }
+    }
+
+    @Test
+    void missingOrBrokenIndexIsRebuilt() throws IOException {
+        Path file = dir.resolve("solutions.db");
+        try (SolutionStore store = new SolutionStore(file)) {
+            fill(store, 25);
+        }
+        Files.delete(index(file));
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertStored(store, 25);
+        }
+        Files.write(index(file), new byte[100]);
+        try (SolutionStore store = new SolutionStore(file)) {
+            assertEquals(25, store.size());
+            assertStored(store, 25);
+        }
+        // An index from an older, longer file must not be trusted either
+        Path copy = dir.resolve("copy.db");
+        Files.copy(index(file), index(copy), StandardCopyOption.REPLACE_EXISTING);
+        try (SolutionStore store = new SolutionStore(copy)) {
+            assertEquals(0, store.size());
+            assertNull(store.get(PUZZLES.get(0)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SolverEventsTest {
+
+    /** Keeps the last value drained per cell and every log line. */
+    private static final class Display implements SudokuObserver {
+        final int[][] cells = new int[25][25];
+        final List<String> log = new ArrayList<>();
+
+        @Override
+        public void onCellUpdate(int row, int col, int value) {
+            cells[row][col] = value;
+        }
+
+        @Override
+        public void onLog(String message) {
+            log.add(message);
+        }
+    }
+
+    @Test
+    void cellUpdatesAreCoalescedNotDropped() {
+        SolverEvents events = new SolverEvents(4, 1);
+        int[][] expected = new int[25][25];
+        for (int i = 0; i < 10_000; i++) {
+            int row = i * 7 % 25;
+            int col = i * 13 % 25;
+            int value = i % 26;
+            events.onEvent(SolverEvent.CELL, SolverEvent.position(row, col), value);
+            expected[row][col] = value;
+        }
+        Display display = new Display();
+        events.drain(display);
+        for (int row = 0; row < 25; row++) {
+            for (int col = 0; col < 25; col++) assertEquals(expected[row][col], display.cells[row][col]);
+        }
+        assertEquals(0, events.dropped());
+        assertEquals(0, events.drain(display));
+    }
+
+    @Test
+    void clearAfterSetLeavesTheCellEmpty() {
+        SolverEvents events = new SolverEvents();
+        Display display = new Display();
+        events.onCellUpdate(3, 4, 7);
+        events.drain(display);
+        assertEquals(7, display.cells[3][4]);
+        events.onCellUpdate(3, 4, 2);
+        events.onCellUpdate(3, 4, 0);
+        assertEquals(1, events.drain(display));
+        assertEquals(0, display.cells[3][4]);
+    }
+
+    @Test
+    void fullRingDropsTraceEventsOnly() {
+        SolverEvents events = new SolverEvents(8, 1);
+        for (int i = 0; i < 20; i++) {
+            events.onEvent(SolverEvent.FORK, SolverEvent.position(0, i), i % 9 + 1);
+            events.onCellUpdate(1, i, i % 9 + 1);
+        }
+        Display display = new Display();
+        events.drain(display);
+        assertEquals(8, display.log.size());
+        assertEquals(12, events.dropped());
+        for (int i = 0; i < 20; i++) assertEquals(i % 9 + 1, display.cells[1][i]);
+    }
+
+    @Test
+    void cellsFromOtherThreadsArriveAfterTheyFinish() throws InterruptedException {
+        SolverEvents events = new SolverEvents(16, 1);
+        Thread solver = new Thread(() -> {
+            for (int i = 0; i < 100_000; i++) events.onCellUpdate(i % 9, i / 9 % 9, i % 10);
+            for (int cell = 0; cell < 81; cell++) events.onCellUpdate(cell / 9, cell % 9, cell % 9 + 1);
+        });
+        Display display = new Display();
+        solver.start();
+        while (solver.isAlive()) events.drain(display);
+        solver.join();
+        events.drain(display);
+        for (int cell = 0; cell < 81; cell++) assertEquals(cell % 9 + 1, display.cells[cell / 9][cell % 9]);
+        assertTrue(display.log.isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SudokuBoardTest {
+
+    /** Candidates recomputed from the cells alone, without the masks. */
+    private static int scanCandidates(SudokuBoard board, int row, int col) {
+        int size = board.size();
+        int box = board.boxSize();
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            used |= bit(board.get(row, i));
+            used |= bit(board.get(i, col));
+            used |= bit(board.get(row / box * box + i / box, col / box * box + i % box));
+        }
+        return ~used & board.allDigits();
+    }
+
+    private static int bit(int value) {
+        return value == 0 ? 0 : 1 << (value - 1);
+    }
+
+    private static void assertMasksMatchCells(SudokuBoard board) {
+        int empty = 0;
+        for (int row = 0; row < board.size(); row++) {
+            for (int col = 0; col < board.size(); col++) {
+                assertEquals(scanCandidates(board, row, col), board.candidates(row, col),
+                        "candidates at " + row + "," + col);
+                if (board.get(row, col) == 0) empty++;
+            }
+        }
+        assertEquals(empty, board.emptyCells());
+    }
+
+    @Test
+    void masksFollowRandomSetsAndClearsOnEverySize() {
+        for (int box = SudokuBoard.MIN_BOX_SIZE; box <= SudokuBoard.MAX_BOX_SIZE; box++) {
+            SudokuBoard board = new SudokuBoard(box);
+            SplittableRandom random = new SplittableRandom(box);
+            for (int step = 1; step <= 3000; step++) {
+                int row = random.nextInt(board.size());
+                int col = random.nextInt(board.size());
+                if (random.nextInt(4) == 0) {
+                    board.set(row, col, 0);
+                } else {
+                    // Only legal moves: masks can't represent a digit twice in one unit
+                    board.set(row, col, 0);
+                    int num = 1 + random.nextInt(board.size());
+                    if (board.isSafe(row, col, num)) board.set(row, col, num);
+                }
+                if (step % 250 == 0) assertMasksMatchCells(board);
+            }
+        }
+    }
+
+    @Test
+    void snapshotAndRestoreRebuildMasks() {
+        SudokuBoard puzzle = Puzzles.corpus(3, 2, 1, 1).get(0);
+        byte[] cells = Puzzles.cells(puzzle);
+
+        SudokuBoard restored = new SudokuBoard();
+        restored.set(0, 0, 5);
+        restored.restore(cells);
+
+        assertArrayEquals(cells, Puzzles.cells(restored));
+        assertMasksMatchCells(restored);
+    }
+
+    @Test
+    void copyIsIndependent() {
+        SudokuBoard puzzle = Puzzles.corpus(4, 2, 2, 1).get(0);
+        SudokuBoard copy = puzzle.copy();
+        assertNotSame(puzzle, copy);
+        assertArrayEquals(Puzzles.cells(puzzle), Puzzles.cells(copy));
+
+        copy.set(0, 0, 0);
+        copy.set(0, 1, 0);
+        assertMasksMatchCells(copy);
+        assertMasksMatchCells(puzzle);
+    }
+
+    @Test
+    void copyIntoRejectsAnotherShape() {
+        assertThrows(IllegalArgumentException.class, () -> new SudokuBoard().copyInto(new SudokuBoard(4)));
+    }
+
+    @Test
+    void pooledBoardsStartAsCopiesOfTheSource() {
+        SudokuBoard puzzle = Puzzles.corpus(3, 3, 3, 1).get(0);
+        SudokuBoard first = BoardPool.acquire(puzzle);
+        first.set(0, 0, 0);
+        BoardPool.release(first);
+
+        SudokuBoard second = BoardPool.acquire(puzzle);
+        assertArrayEquals(Puzzles.cells(puzzle), Puzzles.cells(second));
+        assertMasksMatchCells(second);
+
+        SudokuBoard big = BoardPool.acquire(new SudokuBoard(4));
+        assertEquals(16, big.size());
+    }
+}
@@ -0,0 +1,50 @@
+package com.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SudokuGeneratorTest {
+
+    private static SudokuBoard filled(int boxSize, SplittableRandom random) {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        SudokuGenerator.fillBoard(board, random);
+        return board;
+    }
+
+    @Test
+    void fillsValidGridsOnEverySize() {
+        SplittableRandom random = new SplittableRandom(21);
+        for (int box = SudokuBoard.MIN_BOX_SIZE; box <= SudokuBoard.MAX_BOX_SIZE; box++) {
+            for (int i = 0; i < 5; i++) {
+                SudokuBoard empty = new SudokuBoard(box);
+                assertTrue(Puzzles.solves(empty, filled(box, random)), box + "x" + box + " boxes");
+            }
+        }
+    }
+
+    @Test
+    void largerGridsAreNotTransformsOfOneGrid() {
+        SplittableRandom random = new SplittableRandom(21);
+        for (int box = 4; box <= SudokuBoard.MAX_BOX_SIZE; box++) {
+            Set<String> classes = new HashSet<>();
+            for (int i = 0; i < 5; i++) classes.add(CanonicalForm.of(filled(box, random)).key());
+            assertEquals(5, classes.size(), box + "x" + box + " boxes");
+        }
+    }
+
+    @Test
+    void rejectsUnknownDifficulty() {
+        for (int difficulty : new int[]{0, 4, -1}) {
+            assertThrows(IllegalArgumentException.class, () -> SudokuGenerator.cluesFor(difficulty));
+            assertThrows(IllegalArgumentException.class, () -> SudokuGenerator.cluesFor(4, difficulty));
+            assertThrows(IllegalArgumentException.class, () -> SudokuGenerator.generate(3, difficulty));
+        }
+        assertEquals(24, SudokuGenerator.cluesFor(3));
+    }
+}